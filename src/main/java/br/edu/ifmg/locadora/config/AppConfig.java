@@ -1,14 +1,28 @@
 package br.edu.ifmg.locadora.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class AppConfig {
+
+    @Value("${security.password-hashing.threads}")
+    private int hashingThreads;
+
+    @Value("${security.password-hashing.queue-capacity}")
+    private int hashingQueueCapacity;
+
+    @Value("${security.password-hashing.max-wait}")
+    private Duration hashingMaxWait;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), hashingThreads, hashingQueueCapacity, hashingMaxWait, meterRegistry);
     }
 }
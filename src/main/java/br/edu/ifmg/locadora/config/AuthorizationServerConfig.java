@@ -1,32 +1,41 @@
 package br.edu.ifmg.locadora.config;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import br.edu.ifmg.locadora.config.customgrant.CustomPasswordAuthenticationConverter;
 import br.edu.ifmg.locadora.config.customgrant.CustomPasswordAuthenticationProvider;
+import br.edu.ifmg.locadora.config.customgrant.CustomPasswordAuthenticationToken;
 import br.edu.ifmg.locadora.config.customgrant.CustomUserAuthorities;
+import br.edu.ifmg.locadora.config.jwk.JwkKeyDirectory;
+import br.edu.ifmg.locadora.config.jwt.VerifiedJwtCache;
+import br.edu.ifmg.locadora.config.ratelimit.LoginRateLimitFilter;
+import br.edu.ifmg.locadora.config.ratelimit.LoginRateLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
 import org.springframework.security.oauth2.core.OAuth2Token;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationConsentService;
-import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
@@ -43,13 +52,14 @@ import org.springframework.security.oauth2.server.authorization.token.Delegating
 import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
 import org.springframework.security.oauth2.server.authorization.token.JwtGenerator;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2AccessTokenGenerator;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2RefreshTokenGenerator;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.util.StringUtils;
 
 
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 
@@ -65,14 +75,29 @@ public class AuthorizationServerConfig {
     @Value("${security.jwt.duration}")
     private Integer jwtDurationSeconds;
 
+    @Value("${security.jwt.refresh-duration}")
+    private Integer refreshDurationSeconds;
+
+    @Value("${security.jwt.keys-dir}")
+    private String jwtKeysDir;
+
+    @Value("${security.jwt.signing-key-id}")
+    private String jwtSigningKeyId;
+
+    @Value("${security.jwt.key-activation-delay}")
+    private Duration jwtKeyActivationDelay;
+
     @Autowired
     private UserDetailsService userDetailsService;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
     @Bean
     @Order(2)
-    public SecurityFilterChain asSecurityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain asSecurityFilterChain(HttpSecurity http, OAuth2AuthorizationService authorizationService) throws Exception {
 
         http.securityMatcher("/oauth2/**", "/.well-known/**").with(OAuth2AuthorizationServerConfigurer.authorizationServer(), Customizer.withDefaults());
 
@@ -80,19 +105,16 @@ public class AuthorizationServerConfig {
         http.getConfigurer(OAuth2AuthorizationServerConfigurer.class)
                 .tokenEndpoint(tokenEndpoint -> tokenEndpoint
                         .accessTokenRequestConverter(new CustomPasswordAuthenticationConverter())
-                        .authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService(), tokenGenerator(), userDetailsService, passwordEncoder)));
+                        .authenticationProvider(new CustomPasswordAuthenticationProvider(authorizationService, tokenGenerator(), userDetailsService, passwordEncoder)));
 
         http.oauth2ResourceServer(oauth2ResourceServer -> oauth2ResourceServer.jwt(Customizer.withDefaults()));
+        http.addFilterBefore(new ServiceUnavailableFilter(), SecurityContextHolderFilter.class);
+        http.addFilterBefore(new LoginRateLimitFilter(loginRateLimiter), SecurityContextHolderFilter.class);
         // @formatter:on
 
         return http.build();
     }
 
-    @Bean
-    public OAuth2AuthorizationService authorizationService() {
-        return new InMemoryOAuth2AuthorizationService();
-    }
-
     @Bean
     public OAuth2AuthorizationConsentService oAuth2AuthorizationConsentService() {
         return new InMemoryOAuth2AuthorizationConsentService();
@@ -112,7 +134,8 @@ public class AuthorizationServerConfig {
                 .clientSecret(passwordEncoder.encode(clientSecret))
                 .scope("read")
                 .scope("write")
-                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .authorizationGrantType(CustomPasswordAuthenticationToken.PASSWORD)
+                .authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
                 .tokenSettings(tokenSettings())
                 .clientSettings(clientSettings())
                 .build();
@@ -127,6 +150,9 @@ public class AuthorizationServerConfig {
         return TokenSettings.builder()
                 .accessTokenFormat(OAuth2TokenFormat.SELF_CONTAINED)
                 .accessTokenTimeToLive(Duration.ofSeconds(jwtDurationSeconds))
+                // Cada renovação troca o refresh token; o anterior deixa de valer
+                .refreshTokenTimeToLive(Duration.ofSeconds(refreshDurationSeconds))
+                .reuseRefreshTokens(false)
                 .build();
         // @formatter:on
     }
@@ -143,57 +169,69 @@ public class AuthorizationServerConfig {
 
     @Bean
     public OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator() {
-        NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder(jwkSource());
+        NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder(jwkKeyDirectory().signingKey());
         JwtGenerator jwtGenerator = new JwtGenerator(jwtEncoder);
         jwtGenerator.setJwtCustomizer(tokenCustomizer());
         OAuth2AccessTokenGenerator accessTokenGenerator = new OAuth2AccessTokenGenerator();
-        return new DelegatingOAuth2TokenGenerator(jwtGenerator, accessTokenGenerator);
+        OAuth2RefreshTokenGenerator refreshTokenGenerator = new OAuth2RefreshTokenGenerator();
+        return new DelegatingOAuth2TokenGenerator(jwtGenerator, accessTokenGenerator, refreshTokenGenerator);
     }
 
     @Bean
     public OAuth2TokenCustomizer<JwtEncodingContext> tokenCustomizer() {
         return context -> {
-            OAuth2ClientAuthenticationToken principal = context.getPrincipal();
-            CustomUserAuthorities user = (CustomUserAuthorities) principal.getDetails();
-            List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).toList();
-            if (context.getTokenType().getValue().equals("access_token")) {
-                // @formatter:off
-                context.getClaims()
-                        .claim("authorities", authorities)
-                        .claim("username", user.getUsername());
-                // @formatter:on
+            if (!context.getTokenType().getValue().equals("access_token")) {
+                return;
             }
+            CustomUserAuthorities user = AuthorizationGrantType.REFRESH_TOKEN.equals(context.getAuthorizationGrantType())
+                    ? refreshedUser(context.getAuthorization())
+                    : (CustomUserAuthorities) context.<OAuth2ClientAuthenticationToken>getPrincipal().getDetails();
+            // ArrayList: os claims ficam nos metadados da autorização e o JdbcOAuth2AuthorizationService só lê de volta
+            // tipos da allowlist do Jackson (não as listas imutáveis de Stream.toList)
+            List<String> authorities = user.getAuthorities().stream().map(x -> x.getAuthority()).collect(Collectors.toCollection(ArrayList::new));
+            // @formatter:off
+            context.getClaims()
+                    .claim("authorities", authorities)
+                    .claim("username", user.getUsername());
+            // @formatter:on
         };
     }
 
+    // Renovação: papéis atuais do usuário (UserDetailsCache, sem hash de senha). Usuário removido ou
+    // senha alterada desde o login invalidam o refresh token.
+    private CustomUserAuthorities refreshedUser(OAuth2Authorization authorization) {
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(authorization.getPrincipalName());
+        } catch (UsernameNotFoundException e) {
+            throw new OAuth2AuthenticationException(OAuth2ErrorCodes.INVALID_GRANT);
+        }
+        String fingerprint = authorization.getAttribute(CustomPasswordAuthenticationProvider.PASSWORD_FINGERPRINT_ATTRIBUTE);
+        if (fingerprint == null || !fingerprint.equals(CustomPasswordAuthenticationProvider.passwordFingerprint(user.getPassword()))) {
+            throw new OAuth2AuthenticationException(OAuth2ErrorCodes.INVALID_GRANT);
+        }
+        return new CustomUserAuthorities(user.getUsername(), user.getAuthorities());
+    }
+
     @Bean
-    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
-        return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource, VerifiedJwtCache verifiedJwtCache) {
+        return verifiedJwtCache.decoder(OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource));
     }
 
     @Bean
     public JWKSource<SecurityContext> jwkSource() {
-        RSAKey rsaKey = generateRsa();
-        JWKSet jwkSet = new JWKSet(rsaKey);
-        return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
+        return jwkKeyDirectory().verificationKeys();
     }
 
-    private static RSAKey generateRsa() {
-        KeyPair keyPair = generateRsaKey();
-        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-        RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-        return new RSAKey.Builder(publicKey).privateKey(privateKey).keyID(UUID.randomUUID().toString()).build();
+    @Bean
+    public JwkKeyDirectory jwkKeyDirectory() {
+        return new JwkKeyDirectory(StringUtils.hasText(jwtKeysDir) ? Path.of(jwtKeysDir) : null, jwtSigningKeyId, jwtKeyActivationDelay);
     }
 
-    private static KeyPair generateRsaKey() {
-        KeyPair keyPair;
-        try {
-            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-            keyPairGenerator.initialize(2048);
-            keyPair = keyPairGenerator.generateKeyPair();
-        } catch (Exception ex) {
-            throw new IllegalStateException(ex);
-        }
-        return keyPair;
+    // Chaves adicionadas/removidas no diretório valem sem reiniciar
+    @Scheduled(fixedDelayString = "${security.jwt.keys-reload-interval-ms}",
+            initialDelayString = "${security.jwt.keys-reload-interval-ms}")
+    public void reloadJwkKeys() {
+        jwkKeyDirectory().reload();
     }
 }
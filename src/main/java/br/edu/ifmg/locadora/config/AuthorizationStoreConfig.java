@@ -0,0 +1,97 @@
+package br.edu.ifmg.locadora.config;
+
+import br.edu.ifmg.locadora.config.authorization.BoundedOAuth2AuthorizationService;
+import br.edu.ifmg.locadora.config.authorization.JdbcAuthorizationPurger;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+// Onde ficam as autorizações salvas a cada token emitido (security.authorization-store.type):
+//   memory (padrão): BoundedOAuth2AuthorizationService, limitado a max-size e com remoção por expiração
+//   jdbc: JdbcOAuth2AuthorizationService (tabela oauth2_authorization, ver db/oauth2-authorization-postgresql.sql)
+//         com limpeza periódica das autorizações expiradas; indicado para várias instâncias
+@Configuration
+public class AuthorizationStoreConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "security.authorization-store.type", havingValue = "memory", matchIfMissing = true)
+    static class MemoryStore {
+
+        @Value("${security.authorization-store.max-size}")
+        private int maxSize;
+
+        @Value("${security.authorization-store.default-ttl}")
+        private Duration defaultTtl;
+
+        @Autowired
+        private ObjectProvider<BoundedOAuth2AuthorizationService> authorizationService;
+
+        @Bean
+        public BoundedOAuth2AuthorizationService authorizationService(MeterRegistry meterRegistry) {
+            return new BoundedOAuth2AuthorizationService(maxSize, defaultTtl, Clock.systemUTC(), meterRegistry);
+        }
+
+        // O save já remove as expiradas; isto cobre períodos sem logins
+        @Scheduled(fixedDelayString = "${security.authorization-store.purge-interval-ms}",
+                initialDelayString = "${security.authorization-store.purge-interval-ms}")
+        public void removeExpired() {
+            authorizationService.getObject().removeExpired();
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "security.authorization-store.type", havingValue = "jdbc")
+    static class JdbcStore {
+
+        private static final Logger logger = LoggerFactory.getLogger(JdbcStore.class);
+
+        // Script executado na subida (ex.: classpath:db/oauth2-authorization-postgresql.sql); vazio = tabela já existe
+        @Value("${security.authorization-store.jdbc.schema-script}")
+        private String schemaScript;
+
+        @Autowired
+        private ObjectProvider<JdbcAuthorizationPurger> purger;
+
+        @Bean
+        public OAuth2AuthorizationService authorizationService(JdbcOperations jdbcOperations, RegisteredClientRepository registeredClientRepository,
+                                                               DataSource dataSource, ResourceLoader resourceLoader) {
+            if (StringUtils.hasText(schemaScript)) {
+                new ResourceDatabasePopulator(resourceLoader.getResource(schemaScript)).execute(dataSource);
+            }
+            return new JdbcOAuth2AuthorizationService(jdbcOperations, registeredClientRepository);
+        }
+
+        @Bean
+        public JdbcAuthorizationPurger jdbcAuthorizationPurger(JdbcOperations jdbcOperations) {
+            return new JdbcAuthorizationPurger(jdbcOperations);
+        }
+
+        @Scheduled(fixedDelayString = "${security.authorization-store.purge-interval-ms}",
+                initialDelayString = "${security.authorization-store.purge-interval-ms}")
+        public void purgeExpired() {
+            int removed = purger.getObject().purge(Instant.now());
+            if (removed > 0) {
+                logger.info("Autorizações OAuth2 expiradas removidas: {}", removed);
+            }
+        }
+    }
+}
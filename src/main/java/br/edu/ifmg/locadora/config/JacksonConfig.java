@@ -0,0 +1,19 @@
+package br.edu.ifmg.locadora.config;
+
+import br.edu.ifmg.locadora.resources.representation.RepresentationOptions;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Os DTOs têm @JsonFilter para os campos esparsos (?fields=...); sem filtro na requisição, todos os campos são escritos
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer representationFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(RepresentationOptions.FILTER_ID, SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
@@ -0,0 +1,196 @@
+package br.edu.ifmg.locadora.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Envia as transações readOnly para as réplicas (em rodízio) e todo o resto para o primário.
+// Leituras que não podem ver dado atrasado (ex. as do catálogo com ETag, VehicleService) não usam readOnly.
+// Deve ficar atrás de um LazyConnectionDataSourceProxy: a conexão só é escolhida no primeiro comando,
+// quando a transação já foi marcada como somente leitura.
+// Réplica fora do ar, que falhou ao conectar ou com atraso acima de maxLag sai do rodízio até a próxima verificação.
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Counter fallbacks;
+
+    private volatile Replica[] available = new Replica[0];
+    private final AtomicInteger next = new AtomicInteger();
+
+    private static class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean up;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    // lagQuery deve retornar o atraso da réplica em segundos (ex. PostgreSQL:
+    // SELECT COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)); null ou vazio não mede o atraso
+    public ReadReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, String lagQuery,
+                                        Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.maxLag = maxLag;
+        this.fallbacks = Counter.builder("datasource.replica.fallback")
+                .description("Leituras enviadas ao primário porque a réplica escolhida falhou ao conectar")
+                .register(meterRegistry);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            targets.put(name, dataSource);
+            Gauge.builder("datasource.replica.available", replica, r -> r.up ? 1 : 0)
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        Replica[] candidates = available;
+        if (candidates.length == 0) {
+            return PRIMARY;
+        }
+        return candidates[Math.floorMod(next.getAndIncrement(), candidates.length)].name;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+        Replica replica = find(key);
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            markDown(replica, e.getMessage());
+            fallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credenciais explícitas só fazem sentido no primário
+        return primary.getConnection(username, password);
+    }
+
+    // Verifica cada réplica (conexão válida e atraso dentro do limite) e atualiza o rodízio
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            String problem = probe(replica);
+            if (problem == null) {
+                markUp(replica);
+            } else {
+                markDown(replica, problem);
+            }
+        }
+    }
+
+    public List<String> availableReplicas() {
+        List<String> names = new ArrayList<>();
+        for (Replica replica : available) {
+            names.add(replica.name);
+        }
+        return names;
+    }
+
+    private String probe(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return "conexão inválida";
+            }
+            if (lagQuery == null) {
+                return null;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                double lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+                if (lagSeconds * 1000 > maxLag.toMillis()) {
+                    return String.format("atraso de %.1f s", lagSeconds);
+                }
+            }
+            return null;
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    private synchronized void markUp(Replica replica) {
+        if (!replica.up) {
+            replica.up = true;
+            refreshAvailable();
+            logger.info("Réplica {} de volta ao rodízio de leituras", replica.name);
+        }
+    }
+
+    private synchronized void markDown(Replica replica, String reason) {
+        if (replica.up) {
+            replica.up = false;
+            refreshAvailable();
+            logger.warn("Réplica {} fora do rodízio de leituras: {}", replica.name, reason);
+        }
+    }
+
+    private void refreshAvailable() {
+        available = replicas.stream().filter(r -> r.up).toArray(Replica[]::new);
+    }
+
+    private Replica find(Object key) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(key)) {
+                return replica;
+            }
+        }
+        throw new IllegalStateException("Réplica desconhecida: " + key);
+    }
+
+    // Fecha os pools das réplicas (o primário é um bean e é fechado pelo contexto)
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package br.edu.ifmg.locadora.config;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Arrays;
 
+import br.edu.ifmg.locadora.config.jwt.VerifiedJwtCache;
+import io.micrometer.core.instrument.MeterRegistry;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -30,6 +35,12 @@ public class ResourceServerConfig {
     @Value("${cors.origins}")
     private String corsOrigins;
 
+    @Value("${security.jwt.verified-cache.max-size}")
+    private long verifiedJwtCacheMaxSize;
+
+    @Value("${security.jwt.verified-cache.max-ttl}")
+    private Duration verifiedJwtCacheMaxTtl;
+
     @Bean
     @Order(1)
     public SecurityFilterChain h2SecurityFilterChain(HttpSecurity http) throws Exception {
@@ -50,13 +61,18 @@ public class ResourceServerConfig {
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+    public VerifiedJwtCache verifiedJwtCache(MeterRegistry meterRegistry) {
+        return new VerifiedJwtCache(verifiedJwtCacheMaxSize, verifiedJwtCacheMaxTtl, Clock.systemUTC(), meterRegistry);
+    }
+
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter(VerifiedJwtCache verifiedJwtCache) {
         JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
         grantedAuthoritiesConverter.setAuthoritiesClaimName("authorities");
         grantedAuthoritiesConverter.setAuthorityPrefix("");
 
         JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter);
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(verifiedJwtCache.authoritiesConverter(grantedAuthoritiesConverter));
         return jwtAuthenticationConverter;
     }
 
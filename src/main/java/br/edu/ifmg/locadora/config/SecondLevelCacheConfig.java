@@ -0,0 +1,73 @@
+package br.edu.ifmg.locadora.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ObjectUtils;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+// Cache de segundo nível do Hibernate em memória (JCache + Caffeine) para as entidades que quase não mudam.
+// As regiões são criadas aqui com tamanho e TTL configuráveis; entidades sem região configurada falham na subida.
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String VEHICLE_REGION = "vehicle";
+    public static final String ROLE_REGION = "role";
+
+    @Value("${cache.l2.vehicle.max-size}")
+    private long vehicleMaxSize;
+
+    @Value("${cache.l2.vehicle.ttl}")
+    private Duration vehicleTtl;
+
+    @Value("${cache.l2.role.max-size}")
+    private long roleMaxSize;
+
+    @Value("${cache.l2.role.ttl}")
+    private Duration roleTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(MeterRegistry meterRegistry) {
+        CaffeineCachingProvider provider = new CaffeineCachingProvider();
+        // URI própria por contexto: vários contextos na mesma JVM (testes) não compartilham regiões nem MBeans
+        URI uri = URI.create("locadora-l2-" + ObjectUtils.getIdentityHexString(this));
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+
+        createRegion(cacheManager, meterRegistry, VEHICLE_REGION, vehicleMaxSize, vehicleTtl);
+        createRegion(cacheManager, meterRegistry, ROLE_REGION, roleMaxSize, roleTtl);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry, String name, long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+
+        Cache<Object, Object> cache = cacheManager.createCache(name, configuration);
+        // cache.gets (hit/miss), cache.puts e cache.evictions em /actuator/metrics, tag cache=<região>
+        JCacheMetrics.monitor(meterRegistry, cache);
+    }
+}
@@ -0,0 +1,242 @@
+package br.edu.ifmg.locadora.config.authorization;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.endpoint.OidcParameterNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.util.Assert;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Substitui o InMemoryOAuth2AuthorizationService (que só cresce): no máximo maxSize autorizações em memória,
+// removidas pela ordem de expiração (maior expiresAt entre os tokens). Expiradas saem a cada save; acima do limite
+// sai a que expira primeiro. Busca por valor de token em O(1) por um índice token -> id.
+// Uma autorização removida antes da hora só deixa de ser encontrada (revogação/introspecção/refresh);
+// o JWT autocontido continua válido no servidor de recursos até expirar. Com refresh tokens cada login fica aqui
+// por security.jwt.refresh-duration: maxSize precisa cobrir os logins desse período, senão refresh tokens válidos
+// são descartados (aviso no log na primeira vez e métrica evicted{reason=capacity}).
+// Métricas: oauth2.authorizations.size e oauth2.authorizations.evicted{reason=expired|capacity}
+public class BoundedOAuth2AuthorizationService implements OAuth2AuthorizationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedOAuth2AuthorizationService.class);
+
+    private static final OAuth2TokenType STATE_TOKEN_TYPE = new OAuth2TokenType(OAuth2ParameterNames.STATE);
+    private static final OAuth2TokenType CODE_TOKEN_TYPE = new OAuth2TokenType(OAuth2ParameterNames.CODE);
+    private static final OAuth2TokenType ID_TOKEN_TYPE = new OAuth2TokenType(OidcParameterNames.ID_TOKEN);
+
+    private static final List<Class<? extends OAuth2Token>> TOKEN_CLASSES = List.of(
+            OAuth2AccessToken.class, OAuth2RefreshToken.class, OAuth2AuthorizationCode.class, OidcIdToken.class);
+
+    private record Expiry(Instant expiresAt, String id) {
+    }
+
+    private record Stored(OAuth2Authorization authorization, Expiry expiry, List<String> tokenValues) {
+    }
+
+    private static final Comparator<Expiry> EXPIRY_ORDER = Comparator.comparing(Expiry::expiresAt).thenComparing(Expiry::id);
+
+    private final int maxSize;
+    // Para autorizações sem nenhum token com expiração (ex.: só o state de um fluxo iniciado)
+    private final Duration defaultTtl;
+    private final Clock clock;
+
+    private final Map<String, Stored> byId = new ConcurrentHashMap<>();
+    private final Map<String, String> idByToken = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Expiry> expiryOrder = new ConcurrentSkipListSet<>(EXPIRY_ORDER);
+
+    private final Counter evictedExpired;
+    private final Counter evictedCapacity;
+    private boolean capacityWarned;
+
+    public BoundedOAuth2AuthorizationService(int maxSize, Duration defaultTtl, Clock clock, MeterRegistry meterRegistry) {
+        Assert.isTrue(maxSize > 0, "maxSize must be positive");
+        this.maxSize = maxSize;
+        this.defaultTtl = defaultTtl;
+        this.clock = clock;
+        Gauge.builder("oauth2.authorizations.size", byId, Map::size).register(meterRegistry);
+        this.evictedExpired = Counter.builder("oauth2.authorizations.evicted").tag("reason", "expired").register(meterRegistry);
+        this.evictedCapacity = Counter.builder("oauth2.authorizations.evicted").tag("reason", "capacity").register(meterRegistry);
+    }
+
+    @Override
+    public void save(OAuth2Authorization authorization) {
+        Assert.notNull(authorization, "authorization cannot be null");
+        Instant now = clock.instant();
+        List<String> tokenValues = tokenValues(authorization);
+        Stored stored = new Stored(authorization, new Expiry(expiresAt(authorization, now), authorization.getId()), tokenValues);
+
+        // Escritas serializadas (índices e ordem de expiração mudam juntos); leituras não bloqueiam
+        synchronized (this) {
+            Stored previous = byId.put(authorization.getId(), stored);
+            if (previous != null) {
+                unindex(previous);
+            }
+            tokenValues.forEach(value -> idByToken.put(value, authorization.getId()));
+            expiryOrder.add(stored.expiry());
+
+            removeExpired(now);
+            while (byId.size() > maxSize) {
+                Expiry first = expiryOrder.pollFirst();
+                if (first == null) {
+                    break;
+                }
+                Stored evicted = byId.remove(first.id());
+                if (evicted != null) {
+                    evicted.tokenValues().forEach(value -> idByToken.remove(value, first.id()));
+                    evictedCapacity.increment();
+                    if (!capacityWarned) {
+                        capacityWarned = true;
+                        logger.warn("Limite de {} autorizações OAuth2 atingido: autorizações ainda válidas (e seus refresh tokens) "
+                                + "estão sendo descartadas. Aumente security.authorization-store.max-size ou use o armazenamento jdbc", maxSize);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void remove(OAuth2Authorization authorization) {
+        Assert.notNull(authorization, "authorization cannot be null");
+        synchronized (this) {
+            Stored stored = byId.remove(authorization.getId());
+            if (stored != null) {
+                unindex(stored);
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public OAuth2Authorization findById(String id) {
+        Assert.hasText(id, "id cannot be empty");
+        Stored stored = byId.get(id);
+        return stored == null || isExpired(stored) ? null : stored.authorization();
+    }
+
+    @Nullable
+    @Override
+    public OAuth2Authorization findByToken(String token, @Nullable OAuth2TokenType tokenType) {
+        Assert.hasText(token, "token cannot be empty");
+        String id = idByToken.get(token);
+        if (id == null) {
+            return null;
+        }
+        Stored stored = byId.get(id);
+        if (stored == null || isExpired(stored) || !hasToken(stored.authorization(), token, tokenType)) {
+            return null;
+        }
+        return stored.authorization();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    // Remove as autorizações já expiradas (também chamado a cada save)
+    public void removeExpired() {
+        synchronized (this) {
+            removeExpired(clock.instant());
+        }
+    }
+
+    private void removeExpired(Instant now) {
+        Expiry first;
+        while ((first = expiryOrder.isEmpty() ? null : expiryOrder.first()) != null && !first.expiresAt().isAfter(now)) {
+            expiryOrder.pollFirst();
+            Stored expired = byId.remove(first.id());
+            if (expired != null) {
+                String id = first.id();
+                expired.tokenValues().forEach(value -> idByToken.remove(value, id));
+                evictedExpired.increment();
+            }
+        }
+    }
+
+    private void unindex(Stored stored) {
+        String id = stored.authorization().getId();
+        stored.tokenValues().forEach(value -> idByToken.remove(value, id));
+        expiryOrder.remove(stored.expiry());
+    }
+
+    private boolean isExpired(Stored stored) {
+        return !stored.expiry().expiresAt().isAfter(clock.instant());
+    }
+
+    private Instant expiresAt(OAuth2Authorization authorization, Instant now) {
+        Instant expiresAt = null;
+        for (Class<? extends OAuth2Token> type : TOKEN_CLASSES) {
+            OAuth2Authorization.Token<? extends OAuth2Token> token = authorization.getToken(type);
+            if (token != null && token.getToken().getExpiresAt() != null
+                    && (expiresAt == null || token.getToken().getExpiresAt().isAfter(expiresAt))) {
+                expiresAt = token.getToken().getExpiresAt();
+            }
+        }
+        return expiresAt != null ? expiresAt : now.plus(defaultTtl);
+    }
+
+    private static List<String> tokenValues(OAuth2Authorization authorization) {
+        List<String> values = new ArrayList<>(4);
+        String state = authorization.getAttribute(OAuth2ParameterNames.STATE);
+        if (state != null) {
+            values.add(state);
+        }
+        for (Class<? extends OAuth2Token> type : TOKEN_CLASSES) {
+            OAuth2Authorization.Token<? extends OAuth2Token> token = authorization.getToken(type);
+            if (token != null) {
+                values.add(token.getToken().getTokenValue());
+            }
+        }
+        return values;
+    }
+
+    // Mesmas regras do InMemoryOAuth2AuthorizationService
+    private static boolean hasToken(OAuth2Authorization authorization, String token, @Nullable OAuth2TokenType tokenType) {
+        if (tokenType == null) {
+            return token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE))
+                    || matches(authorization.getToken(OAuth2AuthorizationCode.class), token)
+                    || matches(authorization.getAccessToken(), token)
+                    || matches(authorization.getToken(OidcIdToken.class), token)
+                    || matches(authorization.getRefreshToken(), token);
+        }
+        if (STATE_TOKEN_TYPE.equals(tokenType)) {
+            return token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE));
+        }
+        if (CODE_TOKEN_TYPE.equals(tokenType)) {
+            return matches(authorization.getToken(OAuth2AuthorizationCode.class), token);
+        }
+        if (OAuth2TokenType.ACCESS_TOKEN.equals(tokenType)) {
+            return matches(authorization.getAccessToken(), token);
+        }
+        if (ID_TOKEN_TYPE.equals(tokenType)) {
+            return matches(authorization.getToken(OidcIdToken.class), token);
+        }
+        if (OAuth2TokenType.REFRESH_TOKEN.equals(tokenType)) {
+            return matches(authorization.getRefreshToken(), token);
+        }
+        return false;
+    }
+
+    private static boolean matches(@Nullable OAuth2Authorization.Token<?> token, String value) {
+        return token != null && token.getToken().getTokenValue().equals(value);
+    }
+}
@@ -0,0 +1,28 @@
+package br.edu.ifmg.locadora.config.authorization;
+
+import org.springframework.jdbc.core.JdbcOperations;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+// Remove da tabela oauth2_authorization (JdbcOAuth2AuthorizationService) as autorizações cujos tokens já expiraram.
+// Linhas sem nenhuma expiração (fluxo apenas iniciado) ficam.
+public class JdbcAuthorizationPurger {
+
+    private static final String PURGE_SQL = "DELETE FROM oauth2_authorization WHERE " +
+            "(access_token_expires_at IS NOT NULL OR refresh_token_expires_at IS NOT NULL OR authorization_code_expires_at IS NOT NULL) " +
+            "AND (access_token_expires_at IS NULL OR access_token_expires_at < ?) " +
+            "AND (refresh_token_expires_at IS NULL OR refresh_token_expires_at < ?) " +
+            "AND (authorization_code_expires_at IS NULL OR authorization_code_expires_at < ?)";
+
+    private final JdbcOperations jdbcOperations;
+
+    public JdbcAuthorizationPurger(JdbcOperations jdbcOperations) {
+        this.jdbcOperations = jdbcOperations;
+    }
+
+    public int purge(Instant now) {
+        Timestamp cutoff = Timestamp.from(now);
+        return jdbcOperations.update(PURGE_SQL, cutoff, cutoff, cutoff);
+    }
+}
@@ -1,14 +1,19 @@
 package br.edu.ifmg.locadora.config.customgrant;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.Principal;
+import java.util.Base64;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -19,6 +24,7 @@ import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.OAuth2Error;
 import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
 import org.springframework.security.oauth2.core.OAuth2Token;
 import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
@@ -32,16 +38,19 @@ import org.springframework.security.oauth2.server.authorization.token.OAuth2Toke
 import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenGenerator;
 import org.springframework.util.Assert;
 
+// Sem estado entre chamadas: tudo o que é da requisição fica em variáveis locais, então a mesma instância
+// atende emissões de token concorrentes.
+// Com o grant refresh_token no cliente, emite também um refresh token; a autorização guarda o username
+// (principalName) e a impressão do hash da senha, conferidos pelo tokenCustomizer a cada renovação.
 public class CustomPasswordAuthenticationProvider implements AuthenticationProvider {
 
+    public static final String PASSWORD_FINGERPRINT_ATTRIBUTE = "password_fingerprint";
+
     private static final String ERROR_URI = "https://datatracker.ietf.org/doc/html/rfc6749#section-5.2";
     private final OAuth2AuthorizationService authorizationService;
     private final UserDetailsService userDetailsService;
     private final OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator;
     private final PasswordEncoder passwordEncoder;
-    private String username = "";
-    private String password = "";
-    private Set<String> authorizedScopes = new HashSet<>();
 
     public CustomPasswordAuthenticationProvider(OAuth2AuthorizationService authorizationService,
                                                 OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator,
@@ -63,10 +72,10 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
         CustomPasswordAuthenticationToken customPasswordAuthenticationToken = (CustomPasswordAuthenticationToken) authentication;
         OAuth2ClientAuthenticationToken clientPrincipal = getAuthenticatedClientElseThrowInvalidClient(customPasswordAuthenticationToken);
         RegisteredClient registeredClient = clientPrincipal.getRegisteredClient();
-        username = customPasswordAuthenticationToken.getUsername();
-        password = customPasswordAuthenticationToken.getPassword();
+        String username = customPasswordAuthenticationToken.getUsername();
+        String password = customPasswordAuthenticationToken.getPassword();
 
-        UserDetails user = null;
+        UserDetails user;
         try {
             user = userDetailsService.loadUserByUsername(username);
         } catch (UsernameNotFoundException e) {
@@ -77,19 +86,11 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
             throw new OAuth2AuthenticationException("Invalid credentials");
         }
 
-        authorizedScopes = user.getAuthorities().stream()
-                .map(scope -> scope.getAuthority())
-                .filter(scope -> registeredClient.getScopes().contains(scope))
-                .collect(Collectors.toSet());
-
-        //-----------Create a new Security Context Holder Context----------
-        OAuth2ClientAuthenticationToken oAuth2ClientAuthenticationToken = (OAuth2ClientAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-        CustomUserAuthorities customPasswordUser = new CustomUserAuthorities(username, user.getAuthorities());
-        oAuth2ClientAuthenticationToken.setDetails(customPasswordUser);
+        Set<String> authorizedScopes = authorizedScopes(user, registeredClient.getScopes());
 
-        var newcontext = SecurityContextHolder.createEmptyContext();
-        newcontext.setAuthentication(oAuth2ClientAuthenticationToken);
-        SecurityContextHolder.setContext(newcontext);
+        // Usuário autenticado nos detalhes do principal do cliente (lido pelo tokenCustomizer).
+        // O OAuth2ClientAuthenticationToken é criado a cada requisição, então não há estado compartilhado.
+        clientPrincipal.setDetails(new CustomUserAuthorities(username, user.getAuthorities()));
 
         //-----------TOKEN BUILDERS----------
         DefaultOAuth2TokenContext.Builder tokenContextBuilder = DefaultOAuth2TokenContext.builder()
@@ -97,13 +98,19 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
                 .principal(clientPrincipal)
                 .authorizationServerContext(AuthorizationServerContextHolder.getContext())
                 .authorizedScopes(authorizedScopes)
-                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .authorizationGrantType(CustomPasswordAuthenticationToken.PASSWORD)
                 .authorizationGrant(customPasswordAuthenticationToken);
 
+        // Principal da autorização: o usuário, só com tipos que o JdbcOAuth2AuthorizationService sabe ler de volta
+        // (o OAuth2ClientAuthenticationToken não está na allowlist do Jackson). A renovação usa os papéis atuais.
+        Authentication userPrincipal = UsernamePasswordAuthenticationToken.authenticated(username, null,
+                AuthorityUtils.createAuthorityList(user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList()));
+
         OAuth2Authorization.Builder authorizationBuilder = OAuth2Authorization.withRegisteredClient(registeredClient)
-                .attribute(Principal.class.getName(), clientPrincipal)
-                .principalName(clientPrincipal.getName())
-                .authorizationGrantType(new AuthorizationGrantType("password"))
+                .attribute(Principal.class.getName(), userPrincipal)
+                .attribute(PASSWORD_FINGERPRINT_ATTRIBUTE, passwordFingerprint(user.getPassword()))
+                .principalName(username)
+                .authorizationGrantType(CustomPasswordAuthenticationToken.PASSWORD)
                 .authorizedScopes(authorizedScopes);
 
         //-----------ACCESS TOKEN----------
@@ -125,10 +132,24 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
             authorizationBuilder.accessToken(accessToken);
         }
 
+        //-----------REFRESH TOKEN----------
+        OAuth2RefreshToken refreshToken = null;
+        if (registeredClient.getAuthorizationGrantTypes().contains(AuthorizationGrantType.REFRESH_TOKEN)) {
+            tokenContext = tokenContextBuilder.tokenType(OAuth2TokenType.REFRESH_TOKEN).build();
+            OAuth2Token generatedRefreshToken = this.tokenGenerator.generate(tokenContext);
+            if (!(generatedRefreshToken instanceof OAuth2RefreshToken)) {
+                OAuth2Error error = new OAuth2Error(OAuth2ErrorCodes.SERVER_ERROR,
+                        "The token generator failed to generate the refresh token.", ERROR_URI);
+                throw new OAuth2AuthenticationException(error);
+            }
+            refreshToken = (OAuth2RefreshToken) generatedRefreshToken;
+            authorizationBuilder.refreshToken(refreshToken);
+        }
+
         OAuth2Authorization authorization = authorizationBuilder.build();
         this.authorizationService.save(authorization);
 
-        return new OAuth2AccessTokenAuthenticationToken(registeredClient, clientPrincipal, accessToken);
+        return new OAuth2AccessTokenAuthenticationToken(registeredClient, clientPrincipal, accessToken, refreshToken);
     }
 
     @Override
@@ -136,6 +157,30 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
         return CustomPasswordAuthenticationToken.class.isAssignableFrom(authentication);
     }
 
+    // Autoridades do usuário que também são escopos do cliente (o conjunto do RegisteredClient já é imutável)
+    private static Set<String> authorizedScopes(UserDetails user, Set<String> clientScopes) {
+        Set<String> scopes = null;
+        for (GrantedAuthority authority : user.getAuthorities()) {
+            if (clientScopes.contains(authority.getAuthority())) {
+                if (scopes == null) {
+                    scopes = new HashSet<>();
+                }
+                scopes.add(authority.getAuthority());
+            }
+        }
+        return scopes == null ? Set.of() : scopes;
+    }
+
+    // SHA-256 do hash da senha: muda quando a senha muda, sem guardar o hash na autorização
+    public static String passwordFingerprint(String encodedPassword) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private static OAuth2ClientAuthenticationToken getAuthenticatedClientElseThrowInvalidClient(Authentication authentication) {
 
         OAuth2ClientAuthenticationToken clientPrincipal = null;
@@ -0,0 +1,110 @@
+package br.edu.ifmg.locadora.config.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+// Tokens já validados (assinatura RSA + claims), pela chave SHA-256 do token, até o exp de cada um (no máximo maxTtl).
+// Guarda o Jwt decodificado e as autoridades convertidas do claim "authorities"; o JwtAuthenticationToken
+// continua sendo criado a cada requisição (o provider grava nele os detalhes da requisição).
+// Falhas não são guardadas. Uma chave removida do diretório de chaves só deixa de valer aqui quando os tokens expiram.
+// Métricas: cache.gets{cache=verifiedJwt,result=hit|miss}, cache.evictions, cache.size
+public class VerifiedJwtCache {
+
+    public static final String CACHE_NAME = "verifiedJwt";
+
+    private static final class Entry {
+
+        final Jwt jwt;
+        volatile Collection<GrantedAuthority> authorities;
+
+        Entry(Jwt jwt) {
+            this.jwt = jwt;
+        }
+    }
+
+    private final Cache<String, Entry> cache;
+    private final Clock clock;
+
+    public VerifiedJwtCache(long maxSize, Duration maxTtl, Clock clock, MeterRegistry meterRegistry) {
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<String, Entry>creating((key, entry) -> timeToLive(entry.jwt, maxTtl)))
+                .ticker(() -> clock.millis() * 1_000_000L)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public JwtDecoder decoder(JwtDecoder delegate) {
+        return token -> {
+            String key = key(token);
+            Entry entry = cache.getIfPresent(key);
+            if (entry != null && isValid(entry.jwt)) {
+                return entry.jwt;
+            }
+            Jwt jwt = delegate.decode(token);
+            if (isValid(jwt)) {
+                cache.put(key, new Entry(jwt));
+            }
+            return jwt;
+        };
+    }
+
+    // Conversão feita uma vez por token; Jwt que não veio do cache é convertido normalmente
+    public Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter(Converter<Jwt, Collection<GrantedAuthority>> delegate) {
+        return jwt -> {
+            // asMap().get não conta nas estatísticas: cada requisição conta uma vez (no decoder)
+            Entry entry = cache.asMap().get(key(jwt.getTokenValue()));
+            if (entry == null || entry.jwt != jwt) {
+                return delegate.convert(jwt);
+            }
+            Collection<GrantedAuthority> authorities = entry.authorities;
+            if (authorities == null) {
+                authorities = List.copyOf(delegate.convert(jwt));
+                entry.authorities = authorities;
+            }
+            return authorities;
+        };
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private boolean isValid(Jwt jwt) {
+        return jwt.getExpiresAt() != null && jwt.getExpiresAt().isAfter(clock.instant());
+    }
+
+    private Duration timeToLive(Jwt jwt, Duration maxTtl) {
+        Duration untilExpiry = Duration.between(Instant.ofEpochMilli(clock.millis()), jwt.getExpiresAt());
+        return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+    }
+
+    private static String key(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
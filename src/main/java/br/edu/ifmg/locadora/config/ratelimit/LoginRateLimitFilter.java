@@ -0,0 +1,60 @@
+package br.edu.ifmg.locadora.config.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.core.http.converter.OAuth2ErrorHttpMessageConverter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Na cadeia do servidor de autorização, antes da autenticação do cliente: POST /oauth2/token com
+// grant_type=password acima do limite recebe 429 (Retry-After) sem chegar ao banco nem ao BCrypt.
+// O IP é o remoteAddr (atrás de proxy, configure server.forward-headers-strategy)
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String TOKEN_PATH = "/oauth2/token";
+
+    private final LoginRateLimiter limiter;
+    private final OAuth2ErrorHttpMessageConverter errorConverter = new OAuth2ErrorHttpMessageConverter();
+
+    public LoginRateLimitFilter(LoginRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !TOKEN_PATH.equals(request.getRequestURI().substring(request.getContextPath().length()))
+                || !"password".equals(request.getParameter(OAuth2ParameterNames.GRANT_TYPE));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String ip = request.getRemoteAddr();
+        String username = request.getParameter(OAuth2ParameterNames.USERNAME);
+        long wait = limiter.tryAcquire(ip, username);
+        if (wait > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait) + 1)));
+            errorConverter.write(new OAuth2Error(OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE, "Too many login attempts", null),
+                    MediaType.APPLICATION_JSON, new ServletServerHttpResponse(response));
+            return;
+        }
+        filterChain.doFilter(request, response);
+        if (response.getStatus() == HttpStatus.OK.value()) {
+            limiter.succeeded(ip, username);
+        }
+    }
+}
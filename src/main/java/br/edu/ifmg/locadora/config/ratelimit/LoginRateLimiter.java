@@ -0,0 +1,82 @@
+package br.edu.ifmg.locadora.config.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// Limite de tentativas de login (grant password) por IP e por username, checado antes de qualquer consulta
+// ao banco ou hash de senha. Login bem-sucedido devolve os tokens: só falhas consomem o limite.
+// Métricas: login.ratelimit.rejected{key=ip|username} e login.ratelimit.keys{key=ip|username}
+@Component
+public class LoginRateLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.login-rate-limit.ip.capacity}")
+    private int ipCapacity;
+
+    @Value("${security.login-rate-limit.ip.refill-interval}")
+    private Duration ipRefillInterval;
+
+    @Value("${security.login-rate-limit.username.capacity}")
+    private int usernameCapacity;
+
+    @Value("${security.login-rate-limit.username.refill-interval}")
+    private Duration usernameRefillInterval;
+
+    @Value("${security.login-rate-limit.max-keys}")
+    private long maxKeys;
+
+    private TokenBucketLimiter byIp;
+    private TokenBucketLimiter byUsername;
+    private Counter rejectedByIp;
+    private Counter rejectedByUsername;
+
+    @PostConstruct
+    void init() {
+        byIp = new TokenBucketLimiter(ipCapacity, ipRefillInterval, maxKeys, Ticker.systemTicker());
+        byUsername = new TokenBucketLimiter(usernameCapacity, usernameRefillInterval, maxKeys, Ticker.systemTicker());
+        rejectedByIp = Counter.builder("login.ratelimit.rejected").tag("key", "ip").register(meterRegistry);
+        rejectedByUsername = Counter.builder("login.ratelimit.rejected").tag("key", "username").register(meterRegistry);
+        Gauge.builder("login.ratelimit.keys", byIp, TokenBucketLimiter::size).tag("key", "ip").register(meterRegistry);
+        Gauge.builder("login.ratelimit.keys", byUsername, TokenBucketLimiter::size).tag("key", "username").register(meterRegistry);
+    }
+
+    // 0 se a tentativa pode seguir; senão, nanos até a próxima tentativa
+    public long tryAcquire(String ip, String username) {
+        long wait = byIp.tryAcquire(ip);
+        if (wait > 0) {
+            rejectedByIp.increment();
+            return wait;
+        }
+        if (username != null) {
+            wait = byUsername.tryAcquire(normalize(username));
+            if (wait > 0) {
+                byIp.release(ip);
+                rejectedByUsername.increment();
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    public void succeeded(String ip, String username) {
+        byIp.release(ip);
+        if (username != null) {
+            byUsername.release(normalize(username));
+        }
+    }
+
+    private static String normalize(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+}
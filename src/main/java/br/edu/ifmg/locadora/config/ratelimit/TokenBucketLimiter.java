@@ -0,0 +1,60 @@
+package br.edu.ifmg.locadora.config.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Balde de tokens por chave no formato GCRA: o estado é um único instante (TAT, "theoretical arrival time")
+// atualizado por CAS, sem locks. capacity tentativas seguidas; depois uma a cada refillInterval.
+// Memória limitada: no máximo maxKeys chaves, e uma chave parada até o balde encher é descartada.
+public class TokenBucketLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketLimiter(int capacity, Duration refillInterval, long maxKeys, Ticker ticker) {
+        this.intervalNanos = refillInterval.toNanos();
+        this.burstNanos = intervalNanos * (capacity - 1);
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(intervalNanos * capacity))
+                .ticker(ticker)
+                .build();
+    }
+
+    // 0 se a tentativa foi aceita (e consumiu um token); senão, nanos até a próxima tentativa possível
+    public long tryAcquire(String key) {
+        AtomicLong tat = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = ticker.read();
+            long current = tat.get();
+            long start = current == Long.MIN_VALUE || current < now ? now : current;
+            long wait = start - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // Devolve o token de uma tentativa aceita (ex.: login bem-sucedido não conta)
+    public void release(String key) {
+        AtomicLong tat = buckets.getIfPresent(key);
+        if (tat != null) {
+            tat.getAndUpdate(current -> current == Long.MIN_VALUE ? current : current - intervalNanos);
+        }
+    }
+
+    public long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,17 @@
+package br.edu.ifmg.locadora.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Quantidade de veículos disponíveis no período (mantém o nome de campo já usado pelos clientes)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableCountDTO {
+    @JsonProperty("total_disponiveis")
+    private long total;
+}
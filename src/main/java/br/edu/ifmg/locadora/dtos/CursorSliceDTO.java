@@ -0,0 +1,65 @@
+package br.edu.ifmg.locadora.dtos;
+
+import br.edu.ifmg.locadora.services.exceptions.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// Página da paginação por cursor (keyset): sem total de elementos, com o cursor da próxima página.
+// O cursor é opaco para o cliente; internamente é o último id retornado.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSliceDTO<T> {
+
+    public static final int MAX_SIZE = 1000;
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    // rows deve ter sido buscado com size + 1 linhas: a linha extra só indica que existe próxima página
+    public static <P, T> CursorSliceDTO<T> of(List<P> rows, int size, ToLongFunction<P> idOf, Function<P, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        int count = Math.min(rows.size(), size);
+        List<T> content = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            content.add(mapper.apply(rows.get(i)));
+        }
+        String nextCursor = hasNext ? encodeCursor(idOf.applyAsLong(rows.get(count - 1))) : null;
+        return new CursorSliceDTO<>(content, size, hasNext, nextCursor);
+    }
+
+    public static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Cursor vazio significa primeira página
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor de paginação inválido: " + cursor);
+        }
+    }
+
+    public static int checkSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestException("O tamanho da página deve estar entre 1 e " + MAX_SIZE + ".");
+        }
+        return size;
+    }
+}
@@ -1,6 +1,9 @@
 package br.edu.ifmg.locadora.dtos;
 
 import br.edu.ifmg.locadora.entities.Rental;
+import br.edu.ifmg.locadora.projections.RentalSummaryProjection;
+import br.edu.ifmg.locadora.resources.representation.RepresentationOptions;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.FutureOrPresent;
 import lombok.Getter;
@@ -10,7 +13,9 @@ import org.springframework.hateoas.RepresentationModel;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Set;
 
+@JsonFilter(RepresentationOptions.FILTER_ID)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,11 +31,37 @@ public class RentalDTO extends RepresentationModel<RentalDTO> {
 
 
     public RentalDTO(Rental entity) {
+        this(entity, RepresentationOptions.FULL);
+    }
+
+    // Cliente e veículo só são montados quando fazem parte da representação pedida (?fields=...)
+    public RentalDTO(Rental entity, RepresentationOptions options) {
         this.id = entity.getId();
         this.rentalDate = entity.getRentalDate();
         this.returnDate = entity.getReturnDate();
-        this.user = new UserDTO(entity.getUser());
-        this.vehicle = new VehicleDTO(entity.getVehicle());
+        if (options.includes("user")) {
+            this.user = new UserDTO(entity.getUser());
+        }
+        if (options.includes("vehicle")) {
+            this.vehicle = new VehicleDTO(entity.getVehicle());
+        }
         this.totalValue = entity.getTotalValue();
     }
+
+    public RentalDTO(RentalSummaryProjection projection, Set<RoleDTO> userRoles) {
+        this(projection, userRoles, RepresentationOptions.FULL);
+    }
+
+    public RentalDTO(RentalSummaryProjection projection, Set<RoleDTO> userRoles, RepresentationOptions options) {
+        this.id = projection.id();
+        this.rentalDate = projection.rentalDate();
+        this.returnDate = projection.returnDate();
+        if (options.includes("user")) {
+            this.user = new UserDTO(projection.user(), userRoles);
+        }
+        if (options.includes("vehicle")) {
+            this.vehicle = new VehicleDTO(projection.vehicle());
+        }
+        this.totalValue = projection.totalValue();
+    }
 }
\ No newline at end of file
@@ -1,11 +1,21 @@
 package br.edu.ifmg.locadora.dtos;
 
 import br.edu.ifmg.locadora.entities.Role;
+import br.edu.ifmg.locadora.projections.UserRoleProjection;
+import br.edu.ifmg.locadora.resources.representation.RepresentationOptions;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@JsonFilter(RepresentationOptions.FILTER_ID)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,4 +28,13 @@ public class RoleDTO {
         this.id = role.getId();
         this.authority = role.getAuthority();
     }
+
+    // Agrupa os papéis por usuário (resultado de UserRepository.findRolesByUserIds)
+    public static Map<Long, Set<RoleDTO>> groupByUser(List<UserRoleProjection> rows) {
+        Map<Long, Set<RoleDTO>> rolesByUser = new HashMap<>();
+        for (UserRoleProjection row : rows) {
+            rolesByUser.computeIfAbsent(row.userId(), id -> new HashSet<>()).add(new RoleDTO(row.roleId(), row.authority()));
+        }
+        return rolesByUser;
+    }
 }
\ No newline at end of file
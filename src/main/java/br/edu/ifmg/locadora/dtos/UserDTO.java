@@ -1,6 +1,9 @@
 package br.edu.ifmg.locadora.dtos;
 
 import br.edu.ifmg.locadora.entities.User;
+import br.edu.ifmg.locadora.projections.UserSummaryProjection;
+import br.edu.ifmg.locadora.resources.representation.RepresentationOptions;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -10,6 +13,7 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+@JsonFilter(RepresentationOptions.FILTER_ID)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,4 +33,13 @@ public class UserDTO extends RepresentationModel<UserDTO> {
         this.username = entity.getUsername();
         this.roles = entity.getRoles().stream().map(RoleDTO::new).collect(Collectors.toSet());
     }
+
+    public UserDTO(UserSummaryProjection projection, Set<RoleDTO> roles) {
+        this.id = projection.id();
+        this.name = projection.name();
+        this.email = projection.email();
+        this.phone = projection.phone();
+        this.username = projection.username();
+        this.roles = roles;
+    }
 }
\ No newline at end of file
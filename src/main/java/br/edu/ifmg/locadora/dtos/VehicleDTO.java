@@ -1,11 +1,15 @@
 package br.edu.ifmg.locadora.dtos;
 
 import br.edu.ifmg.locadora.entities.Vehicle;
+import br.edu.ifmg.locadora.projections.VehicleSummaryProjection;
+import br.edu.ifmg.locadora.resources.representation.RepresentationOptions;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.hateoas.RepresentationModel;
 
+@JsonFilter(RepresentationOptions.FILTER_ID)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,4 +29,13 @@ public class VehicleDTO extends RepresentationModel<VehicleDTO> {
         this.dailyRate = entity.getDailyRate();
         this.imageUrl = entity.getImageUrl();
     }
+
+    public VehicleDTO(VehicleSummaryProjection projection) {
+        this.id = projection.id();
+        this.brand = projection.brand();
+        this.model = projection.model();
+        this.licensePlate = projection.licensePlate();
+        this.dailyRate = projection.dailyRate();
+        this.imageUrl = projection.imageUrl();
+    }
 }
\ No newline at end of file
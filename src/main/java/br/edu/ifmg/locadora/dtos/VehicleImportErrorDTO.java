@@ -0,0 +1,17 @@
+package br.edu.ifmg.locadora.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Linha rejeitada na importação em massa (line é o número da linha no arquivo enviado)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleImportErrorDTO {
+    private long line;
+    private String licensePlate;
+    private String message;
+}
@@ -0,0 +1,29 @@
+package br.edu.ifmg.locadora.dtos;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Resumo da importação em massa. Apenas os primeiros MAX_ERRORS erros são detalhados; rejected traz o total.
+@Getter
+@Setter
+@NoArgsConstructor
+public class VehicleImportResultDTO {
+
+    public static final int MAX_ERRORS = 1000;
+
+    private long received;
+    private long imported;
+    private long rejected;
+    private List<VehicleImportErrorDTO> errors = new ArrayList<>();
+
+    public void addError(long line, String licensePlate, String message) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new VehicleImportErrorDTO(line, licensePlate, message));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package br.edu.ifmg.locadora.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// E-mail a enviar, gravado na mesma transação da operação que o gerou e enviado pelo EmailOutboxDispatcher.
+// Enviado com sucesso: a linha é apagada. Esgotadas as tentativas: fica com status DEAD para análise, sem o corpo.
+// expiresAt (opcional): depois disso o conteúdo não vale mais (ex.: token de recuperação de senha); a linha não é
+// enviada nem reagendada além dele e vira DEAD sem o corpo, que nunca fica guardado além da expiração
+// nextAttemptAt também funciona como lease: a instância que pega a linha o adia, e se cair antes de terminar
+// a linha volta a ficar disponível quando o lease vence (entrega pelo menos uma vez)
+@Entity
+@Table(name = "tb_email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_email_outbox_claim", columnList = "claim_token")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class EmailOutbox {
+
+    public static final String PENDING = "PENDING";
+    public static final String DEAD = "DEAD";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    // Nulo depois que a linha vira DEAD
+    @Column(length = 10000)
+    private String body;
+
+    @Column(nullable = false, length = 10)
+    private String status = PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    // Lote da instância que está enviando
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    public EmailOutbox(String recipient, String subject, String body, Instant now, Instant expiresAt) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.nextAttemptAt = now;
+        this.createdAt = now;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
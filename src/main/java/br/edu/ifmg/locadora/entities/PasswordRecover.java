@@ -5,14 +5,19 @@ import jakarta.persistence.*;
 import java.time.Instant;
 import java.util.Objects;
 
+// Guarda só o SHA-256 (hex) do token enviado por e-mail: busca pelo índice único, e um vazamento da tabela
+// não expõe tokens utilizáveis. Índice em expiration para a limpeza das expiradas e em email para o consumo.
 @Entity
-@Table(name = "password_recover")
+@Table(name = "password_recover", indexes = {
+        @Index(name = "idx_password_recover_expiration", columnList = "expiration"),
+        @Index(name = "idx_password_recover_email", columnList = "email")
+})
 public class PasswordRecover {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    @Column(nullable = false)
-    private String token;
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
     @Column(nullable = false)
     private String email;
     @Column(nullable = false)
@@ -20,9 +25,9 @@ public class PasswordRecover {
 
     public PasswordRecover() {}
 
-    public PasswordRecover(Long id, String token, String email, Instant expiration) {
+    public PasswordRecover(Long id, String tokenHash, String email, Instant expiration) {
         this.id = id;
-        this.token = token;
+        this.tokenHash = tokenHash;
         this.email = email;
         this.expiration = expiration;
     }
@@ -35,12 +40,12 @@ public class PasswordRecover {
         this.id = id;
     }
 
-    public String getToken() {
-        return token;
+    public String getTokenHash() {
+        return tokenHash;
     }
 
-    public void setToken(String token) {
-        this.token = token;
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public String getEmail() {
@@ -74,7 +79,6 @@ public class PasswordRecover {
     public String toString() {
         return "PasswordRecover{" +
                 "id=" + id +
-                ", token='" + token + '\'' +
                 ", email='" + email + '\'' +
                 ", expiration=" + expiration +
                 '}';
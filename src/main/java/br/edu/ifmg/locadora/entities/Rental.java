@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.Duration;
@@ -12,7 +13,8 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "tb_rental")
+// (user_id, total_value): maior/menor aluguel do usuário por busca no índice e soma sem junção com tb_vehicle
+@Table(name = "tb_rental", indexes = @Index(name = "idx_rental_user_total_value", columnList = "user_id, total_value"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -41,6 +43,21 @@ public class Rental {
     @Column(name = "return_date", columnDefinition = "TIMESTAMP WITHOUT TIME ZONE", nullable = false)
     private Instant returnDate;
 
+    // Preço no momento da reserva (ver priceAt): a mudança da diária do veículo não altera aluguéis já feitos.
+    // Nulos só em linhas anteriores a estas colunas, até o RentalPriceBackfill preenchê-las (getTotalValue usa a diária atual)
+    @Column(name = "booked_daily_rate")
+    private Double bookedDailyRate;
+
+    @Column(name = "rental_days")
+    private Integer rentalDays;
+
+    @Column(name = "total_value", precision = 14, scale = 2)
+    private BigDecimal totalValue;
+
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     // Construtor para facilitar a criação
     public Rental(User user, Vehicle vehicle, Instant rentalDate, Instant returnDate) {
         this.user = user;
@@ -51,10 +68,28 @@ public class Rental {
 
 
     public BigDecimal getTotalValue() {
+        if (totalValue != null) {
+            return totalValue;
+        }
         if (vehicle == null || rentalDate == null || returnDate == null) {
             return BigDecimal.ZERO;
         }
+        return computeTotalValue(vehicle.getDailyRate(), rentalDate, returnDate);
+    }
 
+    // Grava a diária, os dias e o total com as datas atuais; chamado na reserva e quando as datas ou o veículo mudam
+    public void priceAt(double dailyRate) {
+        this.bookedDailyRate = dailyRate;
+        this.rentalDays = (int) computeDays(rentalDate, returnDate);
+        this.totalValue = computeTotalValue(dailyRate, rentalDate, returnDate);
+    }
+
+    // Mesmo cálculo de getTotalValue, para quem tem só os valores (projeções)
+    public static BigDecimal computeTotalValue(double dailyRate, Instant rentalDate, Instant returnDate) {
+        return BigDecimal.valueOf(dailyRate).multiply(BigDecimal.valueOf(computeDays(rentalDate, returnDate)));
+    }
+
+    public static long computeDays(Instant rentalDate, Instant returnDate) {
         // 1. Calcula a duração exata entre as duas datas
         Duration duration = Duration.between(rentalDate, returnDate);
 
@@ -67,8 +102,6 @@ public class Rental {
         if (days == 0) {
             days = 1;
         }
-
-        BigDecimal dailyRate = BigDecimal.valueOf(vehicle.getDailyRate());
-        return dailyRate.multiply(BigDecimal.valueOf(days));
+        return days;
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,11 @@
 package br.edu.ifmg.locadora.entities;
 
+import br.edu.ifmg.locadora.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import java.util.Objects;
 
@@ -10,6 +13,7 @@ import java.util.Objects;
 @Setter
 @Entity
 @Table(name = "tb_role")
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = SecondLevelCacheConfig.ROLE_REGION)
 public class Role implements GrantedAuthority {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -2,6 +2,7 @@ package br.edu.ifmg.locadora.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -41,6 +42,8 @@ public class User implements UserDetails {
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant updatedAt;
 
+    // Carrega os papéis de vários usuários por consulta em vez de um select por usuário
+    @BatchSize(size = 100)
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
             name = "user_role", // Tabela de junção atualizada
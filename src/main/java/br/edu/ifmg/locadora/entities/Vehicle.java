@@ -1,22 +1,33 @@
 package br.edu.ifmg.locadora.entities;
 
+import br.edu.ifmg.locadora.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
 
 @Entity
 @Table(name ="tb_vehicle")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.VEHICLE_REGION)
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class Vehicle {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    // Sequência com alocação em blocos (pooled-lo): o Hibernate reserva ALLOCATION_SIZE ids por consulta
+    // e consegue agrupar os INSERTs em lotes JDBC, o que não é possível com IDENTITY
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicle_seq")
+    @SequenceGenerator(name = "vehicle_seq", sequenceName = "tb_vehicle_seq", allocationSize = Vehicle.ALLOCATION_SIZE)
     private long id;
 
     @Column(nullable = false)
@@ -38,4 +49,9 @@ public class Vehicle {
 
     @Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
     private Instant updatedAt;
+
+    // Incrementada a cada reserva do veículo (ver RentalService); garante a exclusão mútua entre instâncias
+    @Version
+    @ColumnDefault("0")
+    private long version;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package br.edu.ifmg.locadora.projections;
+
+import br.edu.ifmg.locadora.entities.Rental;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Linha da fatura em streaming: aluguel e veículo, sem o cliente (escrito uma vez no cabeçalho)
+public record InvoiceLineProjection(long id, Instant rentalDate, Instant returnDate,
+                                    long vehicleId, String brand, String model, String licensePlate,
+                                    double dailyRate, String imageUrl, BigDecimal bookedTotalValue) {
+
+    public VehicleSummaryProjection vehicle() {
+        return new VehicleSummaryProjection(vehicleId, brand, model, licensePlate, dailyRate, imageUrl);
+    }
+
+    // Valor gravado na reserva; linha ainda sem ele (antes do backfill) usa a diária atual
+    public BigDecimal totalValue() {
+        return bookedTotalValue != null ? bookedTotalValue : Rental.computeTotalValue(dailyRate, rentalDate, returnDate);
+    }
+}
@@ -0,0 +1,6 @@
+package br.edu.ifmg.locadora.projections;
+
+import java.time.Instant;
+
+public record RentalIntervalProjection(long rentalId, long vehicleId, Instant rentalDate, Instant returnDate) {
+}
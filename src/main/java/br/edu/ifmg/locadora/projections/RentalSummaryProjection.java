@@ -0,0 +1,26 @@
+package br.edu.ifmg.locadora.projections;
+
+import br.edu.ifmg.locadora.entities.Rental;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Linha da listagem de aluguéis: aluguel, cliente e veículo em uma única consulta, sem entidades gerenciadas
+public record RentalSummaryProjection(long id, Instant rentalDate, Instant returnDate,
+                                      long userId, String userName, String userEmail, String userPhone, String username,
+                                      long vehicleId, String brand, String model, String licensePlate,
+                                      double dailyRate, String imageUrl, BigDecimal bookedTotalValue) {
+
+    // Valor gravado na reserva; linha ainda sem ele (antes do backfill) usa a diária atual
+    public BigDecimal totalValue() {
+        return bookedTotalValue != null ? bookedTotalValue : Rental.computeTotalValue(dailyRate, rentalDate, returnDate);
+    }
+
+    public UserSummaryProjection user() {
+        return new UserSummaryProjection(userId, userName, userEmail, userPhone, username);
+    }
+
+    public VehicleSummaryProjection vehicle() {
+        return new VehicleSummaryProjection(vehicleId, brand, model, licensePlate, dailyRate, imageUrl);
+    }
+}
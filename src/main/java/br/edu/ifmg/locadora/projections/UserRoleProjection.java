@@ -0,0 +1,4 @@
+package br.edu.ifmg.locadora.projections;
+
+public record UserRoleProjection(long userId, long roleId, String authority) {
+}
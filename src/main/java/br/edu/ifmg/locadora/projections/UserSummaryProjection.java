@@ -0,0 +1,4 @@
+package br.edu.ifmg.locadora.projections;
+
+public record UserSummaryProjection(long id, String name, String email, String phone, String username) {
+}
@@ -0,0 +1,6 @@
+package br.edu.ifmg.locadora.projections;
+
+import java.time.Instant;
+
+public record VehicleCatalogStateProjection(Long count, Long maxId, Instant lastUpdate) {
+}
@@ -0,0 +1,5 @@
+package br.edu.ifmg.locadora.projections;
+
+public record VehicleSummaryProjection(long id, String brand, String model, String licensePlate,
+                                       double dailyRate, String imageUrl) {
+}
@@ -0,0 +1,56 @@
+package br.edu.ifmg.locadora.repositories;
+
+import br.edu.ifmg.locadora.entities.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT obj.id FROM EmailOutbox obj WHERE obj.status = 'PENDING' AND obj.nextAttemptAt <= :now ORDER BY obj.nextAttemptAt")
+    List<Long> findDueIds(Instant now, Pageable pageable);
+
+    // Reserva as linhas ainda disponíveis (outra instância pode ter pego alguma entre a busca e o UPDATE).
+    // O lease não passa da expiração: se a instância cair, a linha expirada é descartada logo depois
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox obj SET obj.claimToken = :claimToken, obj.attempts = obj.attempts + 1, " +
+            "obj.nextAttemptAt = CASE WHEN obj.expiresAt IS NOT NULL AND obj.expiresAt < :leaseUntil THEN obj.expiresAt ELSE :leaseUntil END " +
+            "WHERE obj.id IN :ids AND obj.status = 'PENDING' AND obj.nextAttemptAt <= :now")
+    int claim(Collection<Long> ids, String claimToken, Instant now, Instant leaseUntil);
+
+    List<EmailOutbox> findByClaimToken(String claimToken);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox obj WHERE obj.id IN :ids AND obj.claimToken = :claimToken")
+    int deleteSent(Collection<Long> ids, String claimToken);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox obj SET obj.nextAttemptAt = :nextAttemptAt, obj.lastError = :lastError, obj.claimToken = NULL " +
+            "WHERE obj.id = :id AND obj.claimToken = :claimToken")
+    int retryLater(Long id, String claimToken, Instant nextAttemptAt, String lastError);
+
+    // DEAD não guarda o corpo (pode conter um token)
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox obj SET obj.status = 'DEAD', obj.body = NULL, obj.nextAttemptAt = :now, obj.lastError = :lastError, " +
+            "obj.claimToken = NULL WHERE obj.id = :id AND obj.claimToken = :claimToken")
+    int markDead(Long id, String claimToken, Instant now, String lastError);
+
+    long countByStatus(String status);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox obj WHERE obj.status = 'DEAD' AND obj.nextAttemptAt < :cutoff")
+    int deleteDeadBefore(Instant cutoff);
+}
@@ -4,15 +4,37 @@ import java.time.Instant;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.edu.ifmg.locadora.entities.PasswordRecover;
 
 @Repository
 public interface PasswordRecoverRepository extends JpaRepository<PasswordRecover, Long> {
+    // Busca pelo índice único de token_hash
     @Query("SELECT obj FROM PasswordRecover obj " +
-            "WHERE (obj.token = :token)" +
+            "WHERE (obj.tokenHash = :tokenHash)" +
             "AND (obj.expiration > :now)")
-    List<PasswordRecover> searchValidToken (String token, Instant now);
+    List<PasswordRecover> searchValidToken (String tokenHash, Instant now);
+
+    // Consome o token: 0 se outra requisição já o usou
+    @Modifying
+    @Query("DELETE FROM PasswordRecover obj WHERE obj.id = :id")
+    int consume(Long id);
+
+    // Os demais tokens pendentes do mesmo e-mail deixam de valer após a troca de senha
+    @Modifying
+    @Query("DELETE FROM PasswordRecover obj WHERE obj.email = :email")
+    int deleteByEmail(String email);
+
+    // Remove até :limit tokens expirados numa transação curta (chamado em lotes pela limpeza agendada)
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            DELETE FROM password_recover WHERE id IN (
+                SELECT id FROM password_recover WHERE expiration <= :now ORDER BY expiration LIMIT :limit)
+            """)
+    int deleteExpired(Instant now, int limit);
 }
@@ -2,19 +2,47 @@ package br.edu.ifmg.locadora.repositories; // ou .repository
 
 import br.edu.ifmg.locadora.entities.Rental;
 import br.edu.ifmg.locadora.entities.Vehicle;
+import br.edu.ifmg.locadora.projections.InvoiceLineProjection;
+import br.edu.ifmg.locadora.projections.RentalIntervalProjection;
+import br.edu.ifmg.locadora.projections.RentalSummaryProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, Long> {
 
+    // Listagem somente leitura: aluguel, cliente e veículo montados direto no record
+    @Query(value = "SELECT new br.edu.ifmg.locadora.projections.RentalSummaryProjection(" +
+            "r.id, r.rentalDate, r.returnDate, " +
+            "u.id, u.name, u.email, u.phone, u.username, " +
+            "v.id, v.brand, v.model, v.licensePlate, v.dailyRate, v.imageUrl, r.totalValue) " +
+            "FROM Rental r JOIN r.user u JOIN r.vehicle v",
+            countQuery = "SELECT COUNT(r) FROM Rental r")
+    Page<RentalSummaryProjection> findAllSummaries(Pageable pageable);
+
+    // Paginação por cursor: usa o índice da chave primária, sem OFFSET nem COUNT
+    @Query("SELECT new br.edu.ifmg.locadora.projections.RentalSummaryProjection(" +
+            "r.id, r.rentalDate, r.returnDate, " +
+            "u.id, u.name, u.email, u.phone, u.username, " +
+            "v.id, v.brand, v.model, v.licensePlate, v.dailyRate, v.imageUrl, r.totalValue) " +
+            "FROM Rental r JOIN r.user u JOIN r.vehicle v WHERE r.id > :after ORDER BY r.id")
+    List<RentalSummaryProjection> findSummariesAfter(@Param("after") long after, Pageable pageable);
+
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END " +
             "FROM Rental r " +
             "WHERE r.vehicle = :vehicle " +
@@ -22,13 +50,39 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
             "AND r.returnDate > :rentalDate")
     boolean existsRentalConflict(Vehicle vehicle, Instant rentalDate, Instant returnDate);
 
+    // Usado para carregar o índice de intervalos em memória; deve ser consumido dentro de uma transação
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new br.edu.ifmg.locadora.projections.RentalIntervalProjection(r.id, r.vehicle.id, r.rentalDate, r.returnDate) " +
+            "FROM Rental r " +
+            "ORDER BY r.vehicle.id, r.rentalDate")
+    Stream<RentalIntervalProjection> streamAllIntervals();
 
+    @EntityGraph(attributePaths = {"user", "vehicle"})
     List<Rental> findByUserId(Long userId);
 
+    boolean existsByUserId(Long userId);
+
+    // Fatura em streaming: cursor no servidor, linhas sem entidades gerenciadas (memória constante);
+    // deve ser consumido dentro de uma transação
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new br.edu.ifmg.locadora.projections.InvoiceLineProjection(" +
+            "r.id, r.rentalDate, r.returnDate, " +
+            "v.id, v.brand, v.model, v.licensePlate, v.dailyRate, v.imageUrl, r.totalValue) " +
+            "FROM Rental r JOIN r.vehicle v WHERE r.user.id = :userId ORDER BY r.rentalDate, r.id")
+    Stream<InvoiceLineProjection> streamInvoiceLines(@Param("userId") Long userId);
+
+    // Valores gravados na reserva (Rental.priceAt): soma de uma coluna e busca no índice (user_id, total_value).
+    // Só as linhas com valor; as ainda sem valor (antes do RentalPriceBackfill) vêm de findUnpricedByUserId
+    // e o RentalService as soma/compara pelo mesmo Rental.getTotalValue da fatura
     @Query(nativeQuery = true, value = """
-        SELECT SUM(v.daily_rate * DATEDIFF('DAY', r.rental_date, r.return_date))
+        SELECT SUM(r.total_value)
         FROM tb_rental r
-        JOIN tb_vehicle v ON r.vehicle_id = v.id
         WHERE r.user_id = :userId
     """)
     BigDecimal findTotalValueByUser(@Param("userId") Long userId);
@@ -36,9 +90,8 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
     @Query(nativeQuery = true, value = """
         SELECT r.*
         FROM tb_rental r
-        JOIN tb_vehicle v ON r.vehicle_id = v.id
-        WHERE r.user_id = :userId
-        ORDER BY (v.daily_rate * DATEDIFF('DAY', r.rental_date, r.return_date)) DESC
+        WHERE r.user_id = :userId AND r.total_value IS NOT NULL
+        ORDER BY r.total_value DESC
         LIMIT 1
     """)
     Optional<Rental> findHighestValueRentalByUser(@Param("userId") Long userId);
@@ -46,13 +99,23 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
     @Query(nativeQuery = true, value = """
         SELECT r.*
         FROM tb_rental r
-        JOIN tb_vehicle v ON r.vehicle_id = v.id
-        WHERE r.user_id = :userId
-        ORDER BY (v.daily_rate * DATEDIFF('DAY', r.rental_date, r.return_date)) ASC
+        WHERE r.user_id = :userId AND r.total_value IS NOT NULL
+        ORDER BY r.total_value ASC
         LIMIT 1
     """)
     Optional<Rental> findLowestValueRentalByUser(@Param("userId") Long userId);
 
+    // Usa o índice (user_id, total_value); normalmente vazio
+    @EntityGraph(attributePaths = {"vehicle"})
+    List<Rental> findByUserIdAndTotalValueIsNull(Long userId);
+
+    // Backfill do preço gravado: aluguéis sem valor, por cursor de id
+    @Query("SELECT r.id FROM Rental r WHERE r.totalValue IS NULL AND r.id > :after ORDER BY r.id")
+    List<Long> findUnpricedIdsAfter(@Param("after") long after, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"user", "vehicle"})
+    List<Rental> findByIdIn(Collection<Long> ids);
+
     boolean existsByVehicleId(Long vehicleId);
 
 }
\ No newline at end of file
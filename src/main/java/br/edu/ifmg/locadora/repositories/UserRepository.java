@@ -3,6 +3,8 @@ package br.edu.ifmg.locadora.repositories;
 
 import br.edu.ifmg.locadora.entities.User;
 import br.edu.ifmg.locadora.projections.UserDetailsProjection;
+import br.edu.ifmg.locadora.projections.UserRoleProjection;
+import br.edu.ifmg.locadora.projections.UserSummaryProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.domain.Pageable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,9 +33,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
     """)
     List<UserDetailsProjection> searchUserAndRoleByUsername(String username);
 
+    @Query("SELECT u.username FROM User u WHERE u.id = :id")
+    Optional<String> findUsernameById(@Param("id") Long id);
+
     @Query("SELECT obj FROM User obj JOIN obj.roles r WHERE r.authority = 'ROLE_CLIENT'")
     Page<User> findAllClients(Pageable pageable);
 
     @Query("SELECT obj FROM User obj JOIN obj.roles r WHERE obj.id = :id AND r.authority = 'ROLE_CLIENT'")
     Optional<User> findClientById(@Param("id") Long id);
+
+    // Listagens somente leitura; os papéis vêm de findRolesByUserIds para a página inteira
+    @Query(value = "SELECT new br.edu.ifmg.locadora.projections.UserSummaryProjection(" +
+            "obj.id, obj.name, obj.email, obj.phone, obj.username) FROM User obj",
+            countQuery = "SELECT COUNT(obj) FROM User obj")
+    Page<UserSummaryProjection> findAllSummaries(Pageable pageable);
+
+    @Query(value = "SELECT new br.edu.ifmg.locadora.projections.UserSummaryProjection(" +
+            "obj.id, obj.name, obj.email, obj.phone, obj.username) " +
+            "FROM User obj JOIN obj.roles r WHERE r.authority = 'ROLE_CLIENT'",
+            countQuery = "SELECT COUNT(obj) FROM User obj JOIN obj.roles r WHERE r.authority = 'ROLE_CLIENT'")
+    Page<UserSummaryProjection> findAllClientSummaries(Pageable pageable);
+
+    // Paginação por cursor: usa o índice da chave primária, sem OFFSET nem COUNT
+    @Query("SELECT new br.edu.ifmg.locadora.projections.UserSummaryProjection(" +
+            "obj.id, obj.name, obj.email, obj.phone, obj.username) " +
+            "FROM User obj WHERE obj.id > :after ORDER BY obj.id")
+    List<UserSummaryProjection> findSummariesAfter(@Param("after") long after, Pageable pageable);
+
+    @Query("SELECT new br.edu.ifmg.locadora.projections.UserSummaryProjection(" +
+            "obj.id, obj.name, obj.email, obj.phone, obj.username) " +
+            "FROM User obj JOIN obj.roles r WHERE r.authority = 'ROLE_CLIENT' AND obj.id > :after ORDER BY obj.id")
+    List<UserSummaryProjection> findClientSummariesAfter(@Param("after") long after, Pageable pageable);
+
+    @Query("SELECT new br.edu.ifmg.locadora.projections.UserRoleProjection(obj.id, r.id, r.authority) " +
+            "FROM User obj JOIN obj.roles r WHERE obj.id IN :userIds")
+    List<UserRoleProjection> findRolesByUserIds(@Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
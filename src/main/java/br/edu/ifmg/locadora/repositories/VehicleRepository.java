@@ -2,19 +2,66 @@ package br.edu.ifmg.locadora.repositories;
 
 
 import br.edu.ifmg.locadora.entities.Vehicle;
+import br.edu.ifmg.locadora.projections.VehicleCatalogStateProjection;
+import br.edu.ifmg.locadora.projections.VehicleSummaryProjection;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
+
+    // Listagem somente leitura: monta o record direto do resultado, sem hidratar entidades
+    @Query(value = "SELECT new br.edu.ifmg.locadora.projections.VehicleSummaryProjection(" +
+            "v.id, v.brand, v.model, v.licensePlate, v.dailyRate, v.imageUrl) FROM Vehicle v",
+            countQuery = "SELECT COUNT(v) FROM Vehicle v")
+    Page<VehicleSummaryProjection> findAllSummaries(Pageable pageable);
+
+    // Paginação por cursor: usa o índice da chave primária, sem OFFSET nem COUNT
+    @Query("SELECT new br.edu.ifmg.locadora.projections.VehicleSummaryProjection(" +
+            "v.id, v.brand, v.model, v.licensePlate, v.dailyRate, v.imageUrl) " +
+            "FROM Vehicle v WHERE v.id > :after ORDER BY v.id")
+    List<VehicleSummaryProjection> findSummariesAfter(@Param("after") long after, Pageable pageable);
+
     @Query("SELECT v FROM Vehicle v WHERE v.id NOT IN (" +
             "SELECT r.vehicle.id FROM Rental r WHERE " +
             "r.rentalDate < :endDate AND r.returnDate > :startDate" +
             ")")
     List<Vehicle> findAvailableVehicles(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
+
+    @Query("SELECT COUNT(v) FROM Vehicle v WHERE v.id NOT IN (" +
+            "SELECT r.vehicle.id FROM Rental r WHERE " +
+            "r.rentalDate < :endDate AND r.returnDate > :startDate" +
+            ")")
+    long countAvailableVehicles(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
+
+    // Resumo do catálogo para detectar alterações feitas por outras instâncias (ver VehicleCatalogVersion)
+    @Query("SELECT new br.edu.ifmg.locadora.projections.VehicleCatalogStateProjection(" +
+            "COUNT(v), MAX(v.id), MAX(v.updatedAt)) FROM Vehicle v")
+    VehicleCatalogStateProjection findCatalogState();
+
+    @Query("SELECT v.id FROM Vehicle v")
+    List<Long> findAllIds();
+
+    List<Vehicle> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // Unicidade da placa verificada por lote na importação em massa
+    @Query("SELECT v.licensePlate FROM Vehicle v WHERE v.licensePlate IN :plates")
+    List<String> findExistingLicensePlates(@Param("plates") Collection<String> plates);
+
+    // Incrementa a versão do veículo no commit: duas reservas concorrentes do mesmo veículo,
+    // mesmo em instâncias diferentes, não conseguem ambas confirmar
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT v FROM Vehicle v WHERE v.id = :id")
+    Optional<Vehicle> findByIdForBooking(@Param("id") Long id);
 }
\ No newline at end of file
@@ -1,17 +1,20 @@
 package br.edu.ifmg.locadora.resources;
 
 import br.edu.ifmg.locadora.dtos.InvoiceDTO;
+import br.edu.ifmg.locadora.dtos.UserDTO;
 import br.edu.ifmg.locadora.services.InvoiceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/invoices")
@@ -34,4 +37,21 @@ public class InvoiceResource {
         InvoiceDTO invoice = invoiceService.generateInvoice(userId);
         return ResponseEntity.ok(invoice);
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Gera a fatura de um usuário em streaming",
+            description = "Mesmo conteúdo da fatura, escrito à medida que os aluguéis são lidos do banco. " +
+                    "Indicado para usuários com muitos aluguéis.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK"),
+                    @ApiResponse(responseCode = "404", description = "Usuário não encontrado ou sem aluguéis")
+            }
+    )
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamInvoice(@PathVariable Long userId) {
+        UserDTO user = invoiceService.findInvoiceUser(userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> invoiceService.writeInvoice(user, out));
+    }
+}
@@ -1,5 +1,6 @@
 package br.edu.ifmg.locadora.resources;
 
+import br.edu.ifmg.locadora.dtos.CursorSliceDTO;
 import br.edu.ifmg.locadora.dtos.RentalDTO;
 import br.edu.ifmg.locadora.services.RentalService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -43,6 +44,22 @@ public class RentalResource {
         return ResponseEntity.ok().body(page);
     }
 
+    @Operation(
+            description ="Buscar todos alugueis por cursor (?after=<cursor>&size=N; after vazio para a primeira página)",
+            summary = "Buscar todos alugueis por cursor",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK"),
+                    @ApiResponse(responseCode = "400", description = "Bad Request"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden")
+            })
+    @GetMapping(params = "after", produces = "application/json")
+    @PreAuthorize(value = "hasAnyAuthority('ROLE_ADMIN')")
+    public ResponseEntity<CursorSliceDTO<RentalDTO>> findAllAfter(@RequestParam String after,
+                                                                  @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok().body(rentalService.findAllAfter(after, size));
+    }
+
 
     @Operation(
             description ="Buscar alugueis por ID",
@@ -67,6 +84,7 @@ public class RentalResource {
                     @ApiResponse(responseCode = "400", description = "Bad Request"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized"),
                     @ApiResponse(responseCode = "403", description = "Forbidden"),
+                    @ApiResponse(responseCode = "409", description = "Conflict"),
                     @ApiResponse(responseCode = "422", description = "Unprocessable Entity")
             })
     @PostMapping(consumes = "application/json", produces = "application/json")
@@ -89,6 +107,7 @@ public class RentalResource {
                     @ApiResponse(responseCode = "404", description = "Not Found"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized"),
                     @ApiResponse(responseCode = "403", description = "Forbidden"),
+                    @ApiResponse(responseCode = "409", description = "Conflict"),
                     @ApiResponse(responseCode = "422", description = "Unprocessable Entity")
             })
     @PutMapping(value = "/{id}", consumes = "application/json", produces = "application/json")
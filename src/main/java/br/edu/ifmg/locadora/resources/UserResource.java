@@ -1,5 +1,6 @@
 package br.edu.ifmg.locadora.resources;
 
+import br.edu.ifmg.locadora.dtos.CursorSliceDTO;
 import br.edu.ifmg.locadora.dtos.UserDTO;
 import br.edu.ifmg.locadora.dtos.UserInsertDTO;
 import br.edu.ifmg.locadora.services.UserService;
@@ -41,6 +42,23 @@ public class UserResource {
         return ResponseEntity.ok().body(page);
     }
 
+    @Operation(
+            summary = "Busca todos os usuários por cursor",
+            description = "Paginação por cursor (?after=<cursor>&size=N; after vazio para a primeira página). Não retorna o total de elementos. Acesso restrito a administradores.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK"),
+                    @ApiResponse(responseCode = "400", description = "Cursor ou tamanho inválido"),
+                    @ApiResponse(responseCode = "401", description = "Não autorizado"),
+                    @ApiResponse(responseCode = "403", description = "Acesso negado")
+            }
+    )
+    @GetMapping(params = "after", produces = "application/json")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<CursorSliceDTO<UserDTO>> findAllAfter(@RequestParam String after,
+                                                                @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok().body(userService.findAllAfter(after, size));
+    }
+
     @Operation(
             summary = "Busca um usuário por ID",
             description = "Retorna os detalhes de um usuário específico. Acesso permitido para administradores ou para o próprio usuário.",
@@ -131,6 +149,23 @@ public class UserResource {
         return ResponseEntity.ok().body(page);
     }
 
+    @Operation(
+            summary = "Busca todos os clientes por cursor",
+            description = "Paginação por cursor (?after=<cursor>&size=N; after vazio para a primeira página) dos usuários com o perfil 'ROLE_CLIENT'. Acesso restrito a administradores.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK"),
+                    @ApiResponse(responseCode = "400", description = "Cursor ou tamanho inválido"),
+                    @ApiResponse(responseCode = "401", description = "Não autorizado"),
+                    @ApiResponse(responseCode = "403", description = "Acesso negado")
+            }
+    )
+    @GetMapping(value = "/clients", params = "after", produces = "application/json")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<CursorSliceDTO<UserDTO>> findAllClientsAfter(@RequestParam String after,
+                                                                       @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok().body(userService.findAllClientsAfter(after, size));
+    }
+
 
     @Operation(
             summary = "Busca um cliente por ID",
@@ -1,21 +1,33 @@
 package br.edu.ifmg.locadora.resources;
 
+import br.edu.ifmg.locadora.dtos.AvailableCountDTO;
+import br.edu.ifmg.locadora.dtos.CursorSliceDTO;
 import br.edu.ifmg.locadora.dtos.VehicleDTO;
+import br.edu.ifmg.locadora.dtos.VehicleImportResultDTO;
 import br.edu.ifmg.locadora.services.VehicleService;
+import br.edu.ifmg.locadora.services.catalog.VehicleCatalogVersion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
@@ -28,31 +40,79 @@ public class VehicleResource {
     @Autowired
     private VehicleService vehicleService;
 
+    @Autowired
+    private VehicleCatalogVersion vehicleCatalogVersion;
+
+    @Value("${vehicle.catalog.max-age}")
+    private Duration catalogMaxAge;
+
     @Operation(
             summary = "Busca todos os veículos (paginado)",
-            description = "Retorna uma lista paginada de todos os veículos disponíveis no sistema. Endpoint público.",
+            description = "Retorna uma lista paginada de todos os veículos disponíveis no sistema. Responde com ETag da versão do catálogo " +
+                    "(If-None-Match igual -> 304). Endpoint público.",
             responses = {
-                    @ApiResponse(description = "OK", responseCode = "200")
+                    @ApiResponse(description = "OK", responseCode = "200"),
+                    @ApiResponse(description = "Not Modified", responseCode = "304")
             }
     )
     @GetMapping(produces = "application/json")
-    public ResponseEntity<Page<VehicleDTO>> findAll(Pageable pageable) {
+    public ResponseEntity<Page<VehicleDTO>> findAll(Pageable pageable, ServletWebRequest request) {
+        // Versão lida antes da consulta: uma escrita concorrente deixa a ETag velha, nunca a página
+        String etag = vehicleCatalogVersion.listEtag();
+        if (notModified(request, etag)) {
+            return null;
+        }
         Page<VehicleDTO> page = vehicleService.findAll(pageable);
-        return ResponseEntity.ok().body(page);
+        return ResponseEntity.ok().eTag(etag).cacheControl(catalogCacheControl()).body(page);
+    }
+
+    @Operation(
+            summary = "Busca todos os veículos por cursor",
+            description = "Paginação por cursor (?after=<cursor>&size=N; after vazio para a primeira página). Não retorna o total de elementos. " +
+                    "Responde com ETag da versão do catálogo (If-None-Match igual -> 304). Endpoint público.",
+            responses = {
+                    @ApiResponse(description = "OK", responseCode = "200"),
+                    @ApiResponse(description = "Not Modified", responseCode = "304"),
+                    @ApiResponse(description = "Bad Request", responseCode = "400")
+            }
+    )
+    @GetMapping(params = "after", produces = "application/json")
+    public ResponseEntity<CursorSliceDTO<VehicleDTO>> findAllAfter(@RequestParam String after,
+                                                                   @RequestParam(defaultValue = "20") int size,
+                                                                   ServletWebRequest request) {
+        String etag = vehicleCatalogVersion.listEtag();
+        if (notModified(request, etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(catalogCacheControl()).body(vehicleService.findAllAfter(after, size));
     }
 
     @Operation(
             summary = "Busca um veículo por ID",
-            description = "Retorna os detalhes de um veículo específico. Endpoint público.",
+            description = "Retorna os detalhes de um veículo específico, com ETag derivada de id e updatedAt (If-None-Match igual -> 304). Endpoint público.",
             responses = {
                     @ApiResponse(description = "OK", responseCode = "200"),
+                    @ApiResponse(description = "Not Modified", responseCode = "304"),
                     @ApiResponse(description = "Not Found", responseCode = "404")
             }
     )
     @GetMapping(value = "/{id}", produces = "application/json")
-    public ResponseEntity<VehicleDTO> findById(@PathVariable Long id) {
+    public ResponseEntity<VehicleDTO> findById(@PathVariable Long id, ServletWebRequest request) {
+        // ETag já conhecida e catálogo inalterado: 304 sem consultar o banco
+        String known = vehicleCatalogVersion.knownItemEtag(id);
+        if (known != null && notModified(request, known)) {
+            return null;
+        }
         VehicleDTO dto = vehicleService.findById(id);
-        return ResponseEntity.ok().body(dto);
+        // Desconhecida só se uma escrita concorreu com a leitura; nesse caso a resposta vai sem ETag
+        String etag = vehicleCatalogVersion.knownItemEtag(id);
+        if (etag == null) {
+            return ResponseEntity.ok().cacheControl(catalogCacheControl()).body(dto);
+        }
+        if (notModified(request, etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(catalogCacheControl()).body(dto);
     }
 
     @Operation(
@@ -75,6 +135,26 @@ public class VehicleResource {
         return ResponseEntity.created(uri).body(dto);
     }
 
+    @Operation(
+            summary = "Importa veículos em massa",
+            description = "Recebe um arquivo CSV (text/csv, com cabeçalho brand,model,licensePlate,dailyRate[,imageUrl]) ou NDJSON " +
+                    "(application/x-ndjson, um veículo por linha). As linhas válidas são gravadas em blocos; as inválidas ou com placa " +
+                    "já cadastrada são listadas em errors com o número da linha. Acesso restrito a administradores.",
+            responses = {
+                    @ApiResponse(description = "OK", responseCode = "200"),
+                    @ApiResponse(description = "Bad Request", responseCode = "400"),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401"),
+                    @ApiResponse(description = "Forbidden", responseCode = "403"),
+                    @ApiResponse(description = "Unsupported Media Type", responseCode = "415")
+            }
+    )
+    @PostMapping(value = "/bulk", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/json")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<VehicleImportResultDTO> importBulk(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                             InputStream body) throws IOException {
+        return ResponseEntity.ok().body(vehicleService.importBulk(MediaType.parseMediaType(contentType), body));
+    }
+
     @Operation(
             summary = "Atualiza um veículo ",
             description = "Atualiza os dados de um veículo existente. Acesso restrito a administradores.",
@@ -126,4 +206,35 @@ public class VehicleResource {
         List<VehicleDTO> list = vehicleService.findAvailable(startDate, endDate);
         return ResponseEntity.ok().body(list);
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Conta veículos disponíveis por período",
+            description = "Retorna apenas a quantidade de veículos sem aluguéis conflitantes com o período informado (datas no formato ISO-8601, ex: 2024-12-25).",
+            responses = {
+                    @ApiResponse(description = "Success", responseCode = "200"),
+                    @ApiResponse(description = "Bad Request - Datas inválidas", responseCode = "400")
+            }
+    )
+    @GetMapping(value = "/available/{startDate}/{endDate}/count", produces = "application/json")
+    public ResponseEntity<AvailableCountDTO> countAvailable(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        long count = vehicleService.countAvailable(startDate, endDate);
+        return ResponseEntity.ok().body(new AvailableCountDTO(count));
+    }
+
+    private CacheControl catalogCacheControl() {
+        return CacheControl.maxAge(catalogMaxAge).cachePublic();
+    }
+
+    // Responde 304 (com ETag e Cache-Control) se o If-None-Match da requisição bater com a ETag
+    private boolean notModified(ServletWebRequest request, String etag) {
+        if (!request.checkNotModified(etag)) {
+            return false;
+        }
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, catalogCacheControl().getHeaderValue());
+        }
+        return true;
+    }
+}
@@ -1,8 +1,13 @@
 package br.edu.ifmg.locadora.resources.exceptions;
 
+import br.edu.ifmg.locadora.services.exceptions.BadRequestException;
+import br.edu.ifmg.locadora.services.exceptions.ConflictException;
 import br.edu.ifmg.locadora.services.exceptions.DataBaseException;
 import br.edu.ifmg.locadora.services.exceptions.ResourceNotFound;
+import br.edu.ifmg.locadora.services.exceptions.ServiceUnavailableException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -41,6 +46,61 @@ public class ResourceExceptionListener {
 
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<StandartError> badRequest(BadRequestException ex, HttpServletRequest request){
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new StandartError(
+                        Instant.now(),
+                        HttpStatus.BAD_REQUEST.value(),
+                        "Bad request",
+                        request.getRequestURI(),
+                        ex.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<StandartError> conflict(ConflictException ex, HttpServletRequest request){
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new StandartError(
+                        Instant.now(),
+                        HttpStatus.CONFLICT.value(),
+                        "Conflict",
+                        request.getRequestURI(),
+                        ex.getMessage()
+                ));
+    }
+
+    // Versão desatualizada (@Version) ou lock do banco: outra requisição alterou o mesmo registro
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<StandartError> concurrencyFailure(ConcurrencyFailureException ex, HttpServletRequest request){
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new StandartError(
+                        Instant.now(),
+                        HttpStatus.CONFLICT.value(),
+                        "Conflict",
+                        request.getRequestURI(),
+                        "O registro foi alterado por outra requisição. Tente novamente."
+                ));
+    }
+
+    // Recurso limitado saturado (ex.: fila de hash de senhas cheia); o cliente pode repetir em seguida
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<StandartError> serviceUnavailable(ServiceUnavailableException ex, HttpServletRequest request){
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new StandartError(
+                        Instant.now(),
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "Service unavailable",
+                        request.getRequestURI(),
+                        ex.getMessage()
+                ));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationError> methodArgumentNotValidException(MethodArgumentNotValidException ex, HttpServletRequest request) {
         ValidationError error = new ValidationError();
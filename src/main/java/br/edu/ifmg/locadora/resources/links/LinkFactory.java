@@ -0,0 +1,60 @@
+package br.edu.ifmg.locadora.resources.links;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+// Substitui linkTo(methodOn(...)) nos serviços: o mapeamento do endpoint é lido uma única vez (em uma constante
+// LinkTemplate) e cada link é montado concatenando a URI base da requisição com o caminho, sem proxy por item.
+public final class LinkFactory {
+
+    private static final String BASE_URI_ATTRIBUTE = LinkFactory.class.getName() + ".BASE_URI";
+
+    private LinkFactory() {
+    }
+
+    // Caminho completo (@RequestMapping da classe + do método) do método do controller com esse nome
+    public static LinkTemplate forMethod(Class<?> controller, String methodName) {
+        List<Method> candidates = new ArrayList<>();
+        for (Method method : controller.getMethods()) {
+            if (method.getName().equals(methodName) && AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class)) {
+                candidates.add(method);
+            }
+        }
+        if (candidates.size() != 1) {
+            throw new IllegalArgumentException("Esperado um único endpoint " + controller.getSimpleName() + "." + methodName
+                    + ", encontrados " + candidates.size());
+        }
+        return new LinkTemplate(firstPath(controller) + firstPath(candidates.get(0)));
+    }
+
+    // Esquema, host, porta e context path da requisição atual, calculados uma vez por requisição
+    // (mesma base usada pelo WebMvcLinkBuilder). Fora de uma requisição os links ficam relativos.
+    static String currentBaseUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return "";
+        }
+        String baseUri = (String) attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (baseUri == null) {
+            baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        }
+        return baseUri;
+    }
+
+    private static String firstPath(AnnotatedElement element) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class);
+        if (mapping == null || mapping.path().length == 0) {
+            return "";
+        }
+        return mapping.path()[0];
+    }
+}
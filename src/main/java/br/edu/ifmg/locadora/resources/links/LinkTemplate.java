@@ -0,0 +1,63 @@
+package br.edu.ifmg.locadora.resources.links;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Caminho de um endpoint já separado em trechos fixos e variáveis ({id}); expandir é só concatenar strings.
+// As variáveis são preenchidas na ordem em que aparecem no caminho.
+public final class LinkTemplate {
+
+    private final String path;
+    private final String[] literals;
+    private final int variables;
+
+    LinkTemplate(String path) {
+        this.path = path;
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = path.indexOf('{', start)) >= 0) {
+            int close = path.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Template de link inválido: " + path);
+            }
+            parts.add(path.substring(start, open));
+            start = close + 1;
+        }
+        parts.add(path.substring(start));
+        this.literals = parts.toArray(String[]::new);
+        this.variables = literals.length - 1;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Link withSelfRel(Object... values) {
+        return Link.of(expand(values), IanaLinkRelations.SELF);
+    }
+
+    public Link withRel(String rel, Object... values) {
+        return Link.of(expand(values), rel);
+    }
+
+    public String expand(Object... values) {
+        if (values.length != variables) {
+            throw new IllegalArgumentException("O link " + path + " espera " + variables + " valor(es), recebeu " + values.length);
+        }
+        StringBuilder href = new StringBuilder(LinkFactory.currentBaseUri());
+        href.append(literals[0]);
+        for (int i = 0; i < variables; i++) {
+            Object value = values[i];
+            // Ids numéricos não precisam de codificação
+            href.append(value instanceof Number ? value.toString() : UriUtils.encodePathSegment(String.valueOf(value), StandardCharsets.UTF_8));
+            href.append(literals[i + 1]);
+        }
+        return href.toString();
+    }
+}
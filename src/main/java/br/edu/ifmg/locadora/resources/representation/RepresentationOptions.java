@@ -0,0 +1,100 @@
+package br.edu.ifmg.locadora.resources.representation;
+
+import br.edu.ifmg.locadora.services.exceptions.BadRequestException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+// Representação pedida pelo cliente nas listagens e buscas de aluguéis, veículos e usuários:
+//   ?fields=id,rentalDate,vehicle.id  só esses campos (caminhos com ponto para objetos aninhados)
+//   ?links=none                        sem os links HATEOAS
+// Os serviços consultam estas opções para nem montar links e DTOs aninhados que não serão enviados;
+// o filtro de JSON (SparseFieldsFilter) remove o restante.
+public final class RepresentationOptions {
+
+    public static final String FILTER_ID = "representation";
+
+    public static final RepresentationOptions FULL = new RepresentationOptions(null, true);
+
+    private static final String ATTRIBUTE = RepresentationOptions.class.getName();
+
+    // null = todos os campos
+    private final Set<String> fields;
+    private final boolean links;
+
+    private RepresentationOptions(Set<String> fields, boolean links) {
+        this.fields = fields;
+        this.links = links && includes("links");
+    }
+
+    public static RepresentationOptions of(String fields, String links) {
+        boolean withLinks;
+        if (links == null || links.isBlank() || links.equalsIgnoreCase("all")) {
+            withLinks = true;
+        } else if (links.equalsIgnoreCase("none")) {
+            withLinks = false;
+        } else {
+            throw new BadRequestException("Valor inválido para links: " + links + " (use all ou none).");
+        }
+        if (fields == null || fields.isBlank()) {
+            return withLinks ? FULL : new RepresentationOptions(null, false);
+        }
+        Set<String> paths = new HashSet<>();
+        for (String field : fields.split(",")) {
+            String path = field.trim();
+            if (!path.isEmpty()) {
+                paths.add(path);
+            }
+        }
+        return new RepresentationOptions(Collections.unmodifiableSet(paths), withLinks);
+    }
+
+    // Opções da requisição atual (lidas uma vez por requisição); fora de uma requisição, representação completa
+    public static RepresentationOptions current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return FULL;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        RepresentationOptions options = (RepresentationOptions) request.getAttribute(ATTRIBUTE);
+        if (options == null) {
+            try {
+                options = of(request.getParameter("fields"), request.getParameter("links"));
+            } catch (BadRequestException e) {
+                // A resposta de erro também passa pelo RepresentationResponseAdvice e deve sair completa
+                request.setAttribute(ATTRIBUTE, FULL);
+                throw e;
+            }
+            request.setAttribute(ATTRIBUTE, options);
+        }
+        return options;
+    }
+
+    public boolean links() {
+        return links;
+    }
+
+    public boolean isSparse() {
+        return fields != null;
+    }
+
+    // Verdadeiro se o caminho foi pedido, se um campo dentro dele foi pedido (vehicle.id inclui vehicle)
+    // ou se o objeto que o contém foi pedido inteiro (vehicle inclui vehicle.brand)
+    public boolean includes(String path) {
+        if (fields == null || fields.contains(path)) {
+            return true;
+        }
+        for (String field : fields) {
+            if (field.length() > path.length() ? field.startsWith(path) && field.charAt(path.length()) == '.'
+                    : path.startsWith(field) && path.length() > field.length() && path.charAt(field.length()) == '.') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,25 @@
+package br.edu.ifmg.locadora.resources.representation;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+// Aplica ?fields=... na serialização da resposta. Sem o parâmetro vale o filtro padrão (todos os campos, ver JacksonConfig).
+@ControllerAdvice
+public class RepresentationResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType, MethodParameter returnType,
+                                           ServerHttpRequest request, ServerHttpResponse response) {
+        RepresentationOptions options = RepresentationOptions.current();
+        if (options.isSparse()) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .addFilter(RepresentationOptions.FILTER_ID, new SparseFieldsFilter(options)));
+        }
+    }
+}
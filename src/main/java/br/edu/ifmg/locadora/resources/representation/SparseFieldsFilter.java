@@ -0,0 +1,45 @@
+package br.edu.ifmg.locadora.resources.representation;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+
+// Filtro dos DTOs anotados com @JsonFilter(RepresentationOptions.FILTER_ID): escreve só os campos pedidos em ?fields.
+// O caminho do campo é relativo ao primeiro DTO filtrado, então vale igual para um item, uma Page ou um CursorSliceDTO.
+public class SparseFieldsFilter extends SimpleBeanPropertyFilter {
+
+    private final RepresentationOptions options;
+
+    public SparseFieldsFilter(RepresentationOptions options) {
+        this.options = options;
+    }
+
+    @Override
+    public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider, PropertyWriter writer) throws Exception {
+        if (options.includes(pathOf(gen, writer.getName()))) {
+            writer.serializeAsField(pojo, gen, provider);
+        } else if (!gen.canOmitFields()) {
+            writer.serializeAsOmittedField(pojo, gen, provider);
+        }
+    }
+
+    private static String pathOf(JsonGenerator gen, String name) {
+        String path = name.equals("_links") ? "links" : name;
+        // Contexto do objeto sendo escrito -> campo que o contém no DTO pai, e assim por diante (listas são puladas)
+        JsonStreamContext context = gen.getOutputContext().getParent();
+        while (context != null) {
+            if (context.inObject()) {
+                Object parent = context.getCurrentValue();
+                if (parent == null || !parent.getClass().isAnnotationPresent(JsonFilter.class)) {
+                    break;
+                }
+                path = context.getCurrentName() + "." + path;
+            }
+            context = context.getParent();
+        }
+        return path;
+    }
+}
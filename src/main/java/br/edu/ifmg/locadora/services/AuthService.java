@@ -7,14 +7,21 @@ import br.edu.ifmg.locadora.entities.PasswordRecover;
 import br.edu.ifmg.locadora.entities.User;
 import br.edu.ifmg.locadora.repositories.PasswordRecoverRepository;
 import br.edu.ifmg.locadora.repositories.UserRepository;
+import br.edu.ifmg.locadora.services.auth.UserDetailsCache;
 
 import br.edu.ifmg.locadora.services.exceptions.ResourceNotFound;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,6 +33,9 @@ public class AuthService {
     @Value("${email.password-recover.uri}")
     private String uri;
 
+    @Value("${email.password-recover.purge-chunk-size}")
+    private int purgeChunkSize;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -38,7 +48,11 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
 
+    @Transactional
     public void createRecoverToken(RequestTokenDTO dto) {
         // Pelo email, buscar o usuário
         User user = userRepository.findByEmail(dto.getEmail());
@@ -50,29 +64,58 @@ public class AuthService {
         // Gerar o token
         String token = UUID.randomUUID().toString();
 
-        // Inserir no BD
+        // Inserir no BD (só o hash do token)
         PasswordRecover passwordRecover = new PasswordRecover();
-        passwordRecover.setToken(token);
+        passwordRecover.setTokenHash(hashToken(token));
         passwordRecover.setEmail(user.getEmail());
         passwordRecover.setExpiration(Instant.now().plusSeconds(tokenMinutes * 60L));
 
         passwordRecoverRepository.save(passwordRecover);
 
-        // Enviar o email com o token incluído no corpo da mensagem
+        // Email com o token incluído no corpo da mensagem, na outbox (enviado em segundo plano)
         String body = "Token para gerar nova senha (válido por " + tokenMinutes + " minutos).\n\n" + uri + token;
 
-        emailService.sendEmail(new EmailDTO(user.getEmail(), "Recuperação de senha", body));
+        // O corpo tem o token em claro: sai da outbox quando o token expira, enviado ou não
+        emailService.enqueue(new EmailDTO(user.getEmail(), "Recuperação de senha", body), passwordRecover.getExpiration());
     }
 
+    @Transactional
     public void saveNewPassword(NewPasswordDTO dto) {
-        List<PasswordRecover> list = passwordRecoverRepository.searchValidToken(dto.getToken(), Instant.now());
+        List<PasswordRecover> list = passwordRecoverRepository.searchValidToken(hashToken(dto.getToken()), Instant.now());
 
-        if (list.isEmpty()) {
+        // Token de uso único: o DELETE decide entre requisições concorrentes com o mesmo token
+        if (list.isEmpty() || passwordRecoverRepository.consume(list.getFirst().getId()) == 0) {
             throw new ResourceNotFound("Token not found.");
         }
 
-        User user = userRepository.findByEmail(list.getFirst().getEmail());
+        String email = list.getFirst().getEmail();
+        User user = userRepository.findByEmail(email);
         user.setPassword(passwordEncoder.encode(dto.getNewPassword()));
         userRepository.save(user);
+        passwordRecoverRepository.deleteByEmail(email);
+        userDetailsCache.evict(user.getUsername());
+    }
+
+    // Limpeza dos tokens expirados em lotes de purgeChunkSize, cada um na sua transação
+    @Scheduled(fixedDelayString = "${email.password-recover.purge-interval-ms}",
+            initialDelayString = "${email.password-recover.purge-interval-ms}")
+    public int purgeExpiredTokens() {
+        Instant now = Instant.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = passwordRecoverRepository.deleteExpired(now, purgeChunkSize);
+            total += deleted;
+        } while (deleted == purgeChunkSize);
+        return total;
+    }
+
+    private static String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
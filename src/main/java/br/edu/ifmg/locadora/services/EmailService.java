@@ -1,34 +1,29 @@
 package br.edu.ifmg.locadora.services;
 
 import br.edu.ifmg.locadora.dtos.EmailDTO;
-import br.edu.ifmg.locadora.services.exceptions.EmailException;
+import br.edu.ifmg.locadora.entities.EmailOutbox;
+import br.edu.ifmg.locadora.repositories.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailSendException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
 
 @Service
 public class EmailService {
 
-    @Value("${spring.mail.username}")
-    private String emailFrom;
-
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository emailOutboxRepository;
+
+    // Grava o e-mail na outbox, na transação de quem chama; o envio é feito pelo EmailOutboxDispatcher
+    @Transactional
+    public void enqueue(EmailDTO dto) {
+        enqueue(dto, null);
+    }
 
-    public void sendEmail(EmailDTO dto) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(emailFrom);
-            message.setTo(dto.getTo());
-            message.setSubject(dto.getSubject());
-            message.setText(dto.getBody());
-            mailSender.send(message);
-        }
-        catch (MailSendException e) {
-            throw new EmailException("Falha ao enviar e-mail: " + e.getMessage());
-        }
+    // expiresAt: conteúdo que deixa de valer (ex.: token); não é enviado nem guardado depois disso
+    @Transactional
+    public void enqueue(EmailDTO dto, Instant expiresAt) {
+        emailOutboxRepository.save(new EmailOutbox(dto.getTo(), dto.getSubject(), dto.getBody(), Instant.now(), expiresAt));
     }
-}
\ No newline at end of file
+}
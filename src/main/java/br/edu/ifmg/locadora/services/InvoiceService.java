@@ -3,17 +3,26 @@ package br.edu.ifmg.locadora.services;
 import br.edu.ifmg.locadora.dtos.InvoiceDTO;
 import br.edu.ifmg.locadora.dtos.RentalDTO;
 import br.edu.ifmg.locadora.dtos.UserDTO;
+import br.edu.ifmg.locadora.dtos.VehicleDTO;
 import br.edu.ifmg.locadora.entities.Rental;
 import br.edu.ifmg.locadora.entities.User;
+import br.edu.ifmg.locadora.projections.InvoiceLineProjection;
 import br.edu.ifmg.locadora.repositories.RentalRepository;
 import br.edu.ifmg.locadora.repositories.UserRepository;
+import br.edu.ifmg.locadora.services.exceptions.ResourceNotFound;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class InvoiceService {
@@ -24,6 +33,9 @@ public class InvoiceService {
     @Autowired
     private RentalRepository rentalRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Transactional(readOnly = true)
     public InvoiceDTO generateInvoice(Long userId) {
         // 1. Busca o usuário
@@ -49,4 +61,44 @@ public class InvoiceService {
         // 5. Cria e retorna o DTO da fatura
         return new InvoiceDTO(new UserDTO(user), rentalDTOs, total);
     }
-}
\ No newline at end of file
+
+    // Validações da fatura em streaming, feitas antes de a resposta começar (404 ainda é possível)
+    @Transactional(readOnly = true)
+    public UserDTO findInvoiceUser(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFound("Usuário com id " + userId + " não encontrado"));
+        if (!rentalRepository.existsByUserId(userId)) {
+            throw new ResourceNotFound("Não há aluguéis para o usuário com id " + userId);
+        }
+        return new UserDTO(user);
+    }
+
+    // Mesmo formato de generateInvoice, escrito à medida que as linhas chegam do cursor:
+    // o cliente vai uma vez no cabeçalho, cada aluguel sai sem ele e o total é somado no caminho
+    @Transactional(readOnly = true)
+    public void writeInvoice(UserDTO user, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+             Stream<InvoiceLineProjection> lines = rentalRepository.streamInvoiceLines(user.getId())) {
+            // Quem abriu o stream (a resposta) é quem o fecha
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeObjectField("user", user);
+            generator.writeArrayFieldStart("rentals");
+            BigDecimal total = BigDecimal.ZERO;
+            for (InvoiceLineProjection line : (Iterable<InvoiceLineProjection>) lines::iterator) {
+                BigDecimal value = line.totalValue();
+                generator.writeStartObject();
+                generator.writeNumberField("id", line.id());
+                generator.writeObjectField("rentalDate", line.rentalDate());
+                generator.writeObjectField("returnDate", line.returnDate());
+                generator.writeNumberField("totalValue", value);
+                generator.writeObjectField("vehicle", new VehicleDTO(line.vehicle()));
+                generator.writeEndObject();
+                total = total.add(value);
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("total", total);
+            generator.writeEndObject();
+        }
+    }
+}
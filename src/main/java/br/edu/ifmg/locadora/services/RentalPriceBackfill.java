@@ -0,0 +1,88 @@
+package br.edu.ifmg.locadora.services;
+
+import br.edu.ifmg.locadora.entities.Rental;
+import br.edu.ifmg.locadora.repositories.RentalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Preenche o preço gravado (diária, dias e total) dos aluguéis anteriores a essas colunas, com a diária atual
+// do veículo (o valor que eles já mostravam). Roda na subida, em blocos de chunk-size aluguéis por transação.
+// Um bloco que conflita com uma alteração concorrente é pulado e tentado de novo a cada retry-interval-ms.
+// Enquanto isso, fatura, total, maior e menor aluguel usam a diária atual para as linhas sem preço (Rental.getTotalValue).
+@Component
+public class RentalPriceBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalPriceBackfill.class);
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${rental.price-backfill.chunk-size}")
+    private int chunkSize;
+
+    // Algum bloco foi pulado: a próxima execução agendada tenta de novo
+    private volatile boolean incomplete;
+
+    // void: um listener que devolve valor tem o retorno publicado como novo evento
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfill();
+    }
+
+    @Scheduled(fixedDelayString = "${rental.price-backfill.retry-interval-ms}",
+            initialDelayString = "${rental.price-backfill.retry-interval-ms}")
+    public void retrySkipped() {
+        if (incomplete) {
+            backfill();
+        }
+    }
+
+    public synchronized int backfill() {
+        incomplete = false;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long after = 0;
+        int total = 0;
+        List<Long> ids;
+        while (!(ids = rentalRepository.findUnpricedIdsAfter(after, PageRequest.of(0, chunkSize))).isEmpty()) {
+            List<Long> chunk = ids;
+            try {
+                total += transaction.execute(status -> priceChunk(chunk));
+            } catch (ConcurrencyFailureException e) {
+                incomplete = true;
+                logger.warn("Aluguéis {} a {} alterados durante o backfill de preços; bloco pulado, nova tentativa agendada", chunk.get(0), chunk.get(chunk.size() - 1));
+            }
+            after = ids.get(ids.size() - 1);
+        }
+        if (total > 0) {
+            logger.info("Preço gravado em {} aluguéis antigos", total);
+        }
+        return total;
+    }
+
+    private int priceChunk(List<Long> ids) {
+        int priced = 0;
+        for (Rental rental : rentalRepository.findByIdIn(ids)) {
+            // Pode ter sido alterado (e já precificado) depois da busca dos ids
+            if (rental.getBookedDailyRate() == null) {
+                rental.priceAt(rental.getVehicle().getDailyRate());
+                priced++;
+            }
+        }
+        return priced;
+    }
+}
@@ -1,30 +1,49 @@
 package br.edu.ifmg.locadora.services;
 
+import br.edu.ifmg.locadora.dtos.CursorSliceDTO;
 import br.edu.ifmg.locadora.dtos.RentalDTO;
+import br.edu.ifmg.locadora.dtos.RoleDTO;
 import br.edu.ifmg.locadora.entities.Rental;
 import br.edu.ifmg.locadora.entities.User;
 import br.edu.ifmg.locadora.entities.Vehicle;
+import br.edu.ifmg.locadora.projections.RentalSummaryProjection;
 import br.edu.ifmg.locadora.repositories.RentalRepository;
 import br.edu.ifmg.locadora.repositories.UserRepository;
 import br.edu.ifmg.locadora.repositories.VehicleRepository;
 import br.edu.ifmg.locadora.resources.RentalResource;
+import br.edu.ifmg.locadora.resources.links.LinkFactory;
+import br.edu.ifmg.locadora.resources.links.LinkTemplate;
+import br.edu.ifmg.locadora.resources.representation.RepresentationOptions;
+import br.edu.ifmg.locadora.services.availability.RentalIntervalIndex;
+import br.edu.ifmg.locadora.services.booking.BookingLockManager;
+import br.edu.ifmg.locadora.services.exceptions.ConflictException;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class RentalService {
 
+    private static final LinkTemplate RENTAL_BY_ID = LinkFactory.forMethod(RentalResource.class, "findById");
+    private static final LinkTemplate ALL_RENTALS = LinkFactory.forMethod(RentalResource.class, "findAll");
+
     @Autowired
     private RentalRepository rentalRepository;
 
@@ -34,14 +53,41 @@ public class RentalService {
     @Autowired
     private VehicleRepository vehicleRepository;
 
+    @Autowired
+    private RentalIntervalIndex rentalIntervalIndex;
+
+    @Autowired
+    private BookingLockManager bookingLockManager;
+
+    // Com várias instâncias o índice local não enxerga as reservas das outras; use false
+    // (a verificação de conflito passa a consultar o banco e a reserva incrementa a versão do veículo)
+    @Value("${rental.index.authoritative}")
+    private boolean indexAuthoritative;
+
     @Transactional(readOnly = true)
     public Page<RentalDTO> findAll(Pageable pageable) {
-        Page<Rental> page = rentalRepository.findAll(pageable);
+        Page<RentalSummaryProjection> page = rentalRepository.findAllSummaries(pageable);
+        RepresentationOptions options = RepresentationOptions.current();
+        Map<Long, Set<RoleDTO>> rolesByUser = findRolesByUser(page.getContent().stream().map(RentalSummaryProjection::userId), options);
+
+        return page.map(rental -> {
+            RentalDTO dto = new RentalDTO(rental, rolesByUser.getOrDefault(rental.userId(), Set.of()), options);
+            return options.links()
+                    ? dto.add(RENTAL_BY_ID.withSelfRel(rental.id())).add(RENTAL_BY_ID.withRel("Get rental", rental.id()))
+                    : dto;
+        });
+    }
 
-        return page.map(rental -> new RentalDTO(rental)
-                .add(linkTo(methodOn(RentalResource.class).findById(rental.getId())).withSelfRel())
-                .add(linkTo(methodOn(RentalResource.class).findById(rental.getId())).withRel("Get rental"))
-        );
+    @Transactional(readOnly = true)
+    public CursorSliceDTO<RentalDTO> findAllAfter(String after, int size) {
+        List<RentalSummaryProjection> rows = rentalRepository.findSummariesAfter(
+                CursorSliceDTO.decodeCursor(after), PageRequest.of(0, CursorSliceDTO.checkSize(size) + 1));
+        RepresentationOptions options = RepresentationOptions.current();
+        Map<Long, Set<RoleDTO>> rolesByUser = findRolesByUser(rows.stream().map(RentalSummaryProjection::userId), options);
+        return CursorSliceDTO.of(rows, size, RentalSummaryProjection::id, rental -> {
+            RentalDTO dto = new RentalDTO(rental, rolesByUser.getOrDefault(rental.userId(), Set.of()), options);
+            return options.links() ? dto.add(RENTAL_BY_ID.withRel("Get rental", rental.id())) : dto;
+        });
     }
 
     @Transactional(readOnly = true)
@@ -49,9 +95,13 @@ public class RentalService {
         Rental rental = rentalRepository.findById(id).orElseThrow(
                 () -> new RuntimeException("Aluguel não encontrado! ID: " + id)
         );
-        return new RentalDTO(rental)
-                .add(linkTo(methodOn(RentalResource.class).findById(id)).withSelfRel())
-                .add(linkTo(methodOn(RentalResource.class).findAll(null)).withRel("Get all rentals"));
+        RepresentationOptions options = RepresentationOptions.current();
+        RentalDTO dto = new RentalDTO(rental, options);
+        if (!options.links()) {
+            return dto;
+        }
+        return dto.add(RENTAL_BY_ID.withSelfRel(id))
+                .add(ALL_RENTALS.withRel("Get all rentals"));
     }
 
     @Transactional
@@ -59,12 +109,14 @@ public class RentalService {
         User user = userRepository.findById(dto.getUser().getId()).orElseThrow(
                 () -> new RuntimeException("Usuário não encontrado!")
         );
-        Vehicle vehicle = vehicleRepository.findById(dto.getVehicle().getId()).orElseThrow(
+        Vehicle vehicle = findVehicleForBooking(dto.getVehicle().getId()).orElseThrow(
                 () -> new RuntimeException("Veículo não encontrado!")
         );
 
-        if (rentalRepository.existsRentalConflict(vehicle, dto.getRentalDate(), dto.getReturnDate())) {
-            throw new RuntimeException("Veículo já está alugado neste período.");
+        // Serializa reservas do mesmo veículo até o commit
+        bookingLockManager.lockUntilCompletion(vehicle.getId());
+        if (hasRentalConflict(vehicle, dto.getRentalDate(), dto.getReturnDate())) {
+            throw new ConflictException("Veículo já está alugado neste período.");
         }
         if (dto.getRentalDate().isAfter(dto.getReturnDate())) {
             throw new RuntimeException("A data de retorno não pode ser anterior à data de locação.");
@@ -76,23 +128,26 @@ public class RentalService {
         entity.setVehicle(vehicle);
         entity.setRentalDate(dto.getRentalDate());
         entity.setReturnDate(dto.getReturnDate());
+        entity.priceAt(vehicle.getDailyRate());
 
-        Rental savedEntity = rentalRepository.save(entity);
+        Rental savedEntity = saveRental(entity);
+        rentalIntervalIndex.rentalSaved(vehicle.getId(), savedEntity.getId(), savedEntity.getRentalDate(), savedEntity.getReturnDate());
         return new RentalDTO(savedEntity)
-                .add(linkTo(methodOn(RentalResource.class).findById(savedEntity.getId())).withRel("Get rental"))
-                .add(linkTo(methodOn(RentalResource.class).findAll(null)).withRel("Get all rentals"));
+                .add(RENTAL_BY_ID.withRel("Get rental", savedEntity.getId()))
+                .add(ALL_RENTALS.withRel("Get all rentals"));
     }
 
     @Transactional
     public RentalDTO update(Long id, RentalDTO dto) {
         try {
             Rental entity = rentalRepository.getReferenceById(id);
+            long previousVehicleId = entity.getVehicle().getId();
 
             // Carrega as entidades relacionadas para garantir que existam
             User user = userRepository.findById(dto.getUser().getId()).orElseThrow(
                     () -> new RuntimeException("Usuário não encontrado!")
             );
-            Vehicle vehicle = vehicleRepository.findById(dto.getVehicle().getId()).orElseThrow(
+            Vehicle vehicle = findVehicleForBooking(dto.getVehicle().getId()).orElseThrow(
                     () -> new RuntimeException("Veículo não encontrado!")
             );
 
@@ -100,20 +155,28 @@ public class RentalService {
                 throw new RuntimeException("A data de retorno não pode ser anterior à data de locação.");
             }
 
-            if (rentalRepository.existsRentalConflict(vehicle, dto.getRentalDate(), dto.getReturnDate())) {
+            bookingLockManager.lockUntilCompletion(previousVehicleId, vehicle.getId());
+            if (hasRentalConflict(vehicle, dto.getRentalDate(), dto.getReturnDate())) {
 
-                throw new RuntimeException("Período de aluguel indisponível.");
+                throw new ConflictException("Período de aluguel indisponível.");
             }
 
+            // Mesmo veículo: mantém a diária reservada e recalcula os dias; outro veículo: diária atual dele
+            Double bookedDailyRate = previousVehicleId == vehicle.getId() ? entity.getBookedDailyRate() : null;
             entity.setUser(user);
             entity.setVehicle(vehicle);
             entity.setRentalDate(dto.getRentalDate());
             entity.setReturnDate(dto.getReturnDate());
+            entity.priceAt(bookedDailyRate != null ? bookedDailyRate : vehicle.getDailyRate());
 
-            entity = rentalRepository.save(entity);
+            entity = saveRental(entity);
+            if (previousVehicleId != vehicle.getId()) {
+                rentalIntervalIndex.rentalRemoved(previousVehicleId, id);
+            }
+            rentalIntervalIndex.rentalSaved(vehicle.getId(), id, entity.getRentalDate(), entity.getReturnDate());
             return new RentalDTO(entity)
-                    .add(linkTo(methodOn(RentalResource.class).findById(id)).withSelfRel())
-                    .add(linkTo(methodOn(RentalResource.class).findAll(null)).withRel("Get all rentals"));
+                    .add(RENTAL_BY_ID.withSelfRel(id))
+                    .add(ALL_RENTALS.withRel("Get all rentals"));
         } catch (EntityNotFoundException e) {
             throw new RuntimeException("Aluguel não encontrado! ID: " + id);
         }
@@ -126,7 +189,9 @@ public class RentalService {
         }
         try {
             Rental rental = rentalRepository.getReferenceById(id);
+            long vehicleId = rental.getVehicle().getId();
             rentalRepository.delete(rental);
+            rentalIntervalIndex.rentalRemoved(vehicleId, id);
             return new RentalDTO(rental);
         } catch (DataIntegrityViolationException e) {
             throw new RuntimeException("Violação de integridade ao deletar aluguel.");
@@ -145,8 +210,9 @@ public class RentalService {
         List<Rental> list = rentalRepository.findByUserId(userId);
 
         // Mapeia a lista de entidades para uma lista de DTOs
+        RepresentationOptions options = RepresentationOptions.current();
         return list.stream()
-                .map(RentalDTO::new)
+                .map(rental -> new RentalDTO(rental, options))
                 .collect(Collectors.toList());
     }
 
@@ -156,7 +222,12 @@ public class RentalService {
             throw new RuntimeException("Usuário não encontrado! ID: " + userId);
         }
         BigDecimal totalValue = rentalRepository.findTotalValueByUser(userId);
-        return totalValue != null ? totalValue : BigDecimal.ZERO;
+        totalValue = totalValue != null ? totalValue : BigDecimal.ZERO;
+        // Aluguéis ainda sem preço gravado: mesmo valor da fatura (diária atual)
+        for (Rental unpriced : rentalRepository.findByUserIdAndTotalValueIsNull(userId)) {
+            totalValue = totalValue.add(unpriced.getTotalValue());
+        }
+        return totalValue;
     }
 
     @Transactional(readOnly = true)
@@ -164,11 +235,12 @@ public class RentalService {
         if (!userRepository.existsById(userId)) {
             throw new RuntimeException("Usuário não encontrado! ID: " + userId);
         }
-        Rental highestValueRental = rentalRepository.findHighestValueRentalByUser(userId)
+        Rental highestValueRental = withUnpriced(rentalRepository.findHighestValueRentalByUser(userId), userId, Comparator.naturalOrder())
                 .orElseThrow(() -> new RuntimeException("Nenhum aluguel encontrado para o usuário ID: " + userId));
 
-        return new RentalDTO(highestValueRental)
-                .add(linkTo(methodOn(RentalResource.class).findById(highestValueRental.getId())).withSelfRel());
+        RepresentationOptions options = RepresentationOptions.current();
+        RentalDTO dto = new RentalDTO(highestValueRental, options);
+        return options.links() ? dto.add(RENTAL_BY_ID.withSelfRel(highestValueRental.getId())) : dto;
 
     }
 
@@ -177,10 +249,61 @@ public class RentalService {
         if (!userRepository.existsById(userId)) {
             throw new RuntimeException("Usuário não encontrado! ID: " + userId);
         }
-        Rental lowestValueRental = rentalRepository.findLowestValueRentalByUser(userId)
+        Rental lowestValueRental = withUnpriced(rentalRepository.findLowestValueRentalByUser(userId), userId, Comparator.reverseOrder())
                 .orElseThrow(() -> new RuntimeException("Nenhum aluguel encontrado para o usuário ID: " + userId));
 
-        return new RentalDTO(lowestValueRental)
-                .add(linkTo(methodOn(RentalResource.class).findById(lowestValueRental.getId())).withSelfRel());
+        RepresentationOptions options = RepresentationOptions.current();
+        RentalDTO dto = new RentalDTO(lowestValueRental, options);
+        return options.links() ? dto.add(RENTAL_BY_ID.withSelfRel(lowestValueRental.getId())) : dto;
+    }
+
+    // O resultado da busca no índice disputa com os aluguéis ainda sem preço gravado (maior pela ordem dada)
+    private Optional<Rental> withUnpriced(Optional<Rental> priced, Long userId, Comparator<BigDecimal> order) {
+        List<Rental> unpriced = rentalRepository.findByUserIdAndTotalValueIsNull(userId);
+        if (unpriced.isEmpty()) {
+            return priced;
+        }
+        Stream<Rental> candidates = Stream.concat(priced.stream(), unpriced.stream());
+        return candidates.max(Comparator.comparing(Rental::getTotalValue, order));
+    }
+
+    // Sem consulta quando os papéis do usuário ficaram fora de ?fields
+    private Map<Long, Set<RoleDTO>> findRolesByUser(Stream<Long> userIds, RepresentationOptions options) {
+        if (!options.includes("user.roles")) {
+            return Map.of();
+        }
+        Set<Long> ids = userIds.collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return RoleDTO.groupByUser(userRepository.findRolesByUserIds(ids));
+    }
+
+    // Uma instância: o lock da JVM já serializa as reservas e o veículo vem do cache de segundo nível.
+    // Várias instâncias: a versão do veículo, lida do banco e incrementada no commit, impede reservas sobrepostas
+    // (incrementar a versão também invalida a entrada do cache, por isso não é feito no primeiro caso)
+    private Optional<Vehicle> findVehicleForBooking(Long vehicleId) {
+        if (indexAuthoritative) {
+            return vehicleRepository.findById(vehicleId);
+        }
+        return vehicleRepository.findByIdForBooking(vehicleId);
+    }
+
+    // Grava já na transação para que a exclusion constraint (PostgreSQL) seja avaliada aqui
+    private Rental saveRental(Rental entity) {
+        try {
+            return rentalRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Veículo já está alugado neste período.", e);
+        }
+    }
+
+    // Consulta o índice em memória; o banco é consultado enquanto o índice não estiver carregado
+    // ou quando ele não for a fonte de verdade (várias instâncias)
+    private boolean hasRentalConflict(Vehicle vehicle, Instant rentalDate, Instant returnDate) {
+        if (indexAuthoritative && rentalIntervalIndex.isReady()) {
+            return rentalIntervalIndex.hasConflict(vehicle.getId(), rentalDate, returnDate);
+        }
+        return rentalRepository.existsRentalConflict(vehicle, rentalDate, returnDate);
     }
 }
\ No newline at end of file
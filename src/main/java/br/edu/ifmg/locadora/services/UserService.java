@@ -1,32 +1,48 @@
 package br.edu.ifmg.locadora.services;
 
+import br.edu.ifmg.locadora.dtos.CursorSliceDTO;
 import br.edu.ifmg.locadora.dtos.RoleDTO;
 import br.edu.ifmg.locadora.dtos.UserDTO;
 import br.edu.ifmg.locadora.dtos.UserInsertDTO;
 import br.edu.ifmg.locadora.entities.Role;
 import br.edu.ifmg.locadora.entities.User;
 import br.edu.ifmg.locadora.projections.UserDetailsProjection;
+import br.edu.ifmg.locadora.projections.UserSummaryProjection;
 import br.edu.ifmg.locadora.repositories.RoleRepository;
 import br.edu.ifmg.locadora.repositories.UserRepository;
 import br.edu.ifmg.locadora.resources.UserResource;
+import br.edu.ifmg.locadora.resources.links.LinkFactory;
+import br.edu.ifmg.locadora.resources.links.LinkTemplate;
+import br.edu.ifmg.locadora.resources.representation.RepresentationOptions;
+import br.edu.ifmg.locadora.services.auth.UserDetailsCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.hateoas.Link;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class UserService implements UserDetailsService {
 
+    private static final LinkTemplate ALL_USERS = LinkFactory.forMethod(UserResource.class, "findAll");
+    private static final LinkTemplate USER_BY_ID = LinkFactory.forMethod(UserResource.class, "findById");
+    private static final LinkTemplate UPDATE_USER = LinkFactory.forMethod(UserResource.class, "update");
+    private static final LinkTemplate DELETE_USER = LinkFactory.forMethod(UserResource.class, "delete");
+    private static final LinkTemplate ALL_CLIENTS = LinkFactory.forMethod(UserResource.class, "findAllClients");
+    private static final LinkTemplate CLIENT_BY_ID = LinkFactory.forMethod(UserResource.class, "findClientById");
+
     @Autowired
     private UserRepository userRepository;
 
@@ -36,13 +52,32 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     @Transactional(readOnly = true)
     public Page<UserDTO> findAll(Pageable pageable) {
-        Page<User> page = userRepository.findAll(pageable);
-        return page.map(user -> new UserDTO(user)
-                .add(linkTo(methodOn(UserResource.class).findAll(null)).withSelfRel())
-                .add(linkTo(methodOn(UserResource.class).findById(user.getId())).withRel("Get a user"))
-        );
+        Page<UserSummaryProjection> page = userRepository.findAllSummaries(pageable);
+        RepresentationOptions options = RepresentationOptions.current();
+        Map<Long, Set<RoleDTO>> rolesByUser = findRolesByUser(page.getContent(), options);
+        // Com ?links=none os links nem são montados; o da listagem é o mesmo para todos os itens da página
+        Link self = options.links() ? ALL_USERS.withSelfRel() : null;
+        return page.map(user -> {
+            UserDTO dto = new UserDTO(user, rolesByUser.getOrDefault(user.id(), Set.of()));
+            return options.links() ? dto.add(self).add(USER_BY_ID.withRel("Get a user", user.id())) : dto;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public CursorSliceDTO<UserDTO> findAllAfter(String after, int size) {
+        List<UserSummaryProjection> rows = userRepository.findSummariesAfter(
+                CursorSliceDTO.decodeCursor(after), PageRequest.of(0, CursorSliceDTO.checkSize(size) + 1));
+        RepresentationOptions options = RepresentationOptions.current();
+        Map<Long, Set<RoleDTO>> rolesByUser = findRolesByUser(rows, options);
+        return CursorSliceDTO.of(rows, size, UserSummaryProjection::id, user -> {
+            UserDTO dto = new UserDTO(user, rolesByUser.getOrDefault(user.id(), Set.of()));
+            return options.links() ? dto.add(USER_BY_ID.withRel("Get a user", user.id())) : dto;
+        });
     }
 
     @Transactional(readOnly = true)
@@ -50,11 +85,14 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findById(id).orElseThrow(
                 () -> new RuntimeException("Usuário não encontrado! ID: " + id)
         );
-        return new UserDTO(user)
-                .add(linkTo(methodOn(UserResource.class).findById(id)).withSelfRel())
-                .add(linkTo(methodOn(UserResource.class).findAll(null)).withRel("Get all users"))
-                .add(linkTo(methodOn(UserResource.class).update(id, new UserDTO(user))).withRel("Update a user"))
-                .add(linkTo(methodOn(UserResource.class).delete(id)).withRel("Delete a user"));
+        UserDTO dto = new UserDTO(user);
+        if (!RepresentationOptions.current().links()) {
+            return dto;
+        }
+        return dto.add(USER_BY_ID.withSelfRel(id))
+                .add(ALL_USERS.withRel("Get all users"))
+                .add(UPDATE_USER.withRel("Update a user", id))
+                .add(DELETE_USER.withRel("Delete a user", id));
     }
 
     @Transactional
@@ -69,34 +107,38 @@ public class UserService implements UserDetailsService {
 
         entity = userRepository.save(entity);
         return new UserDTO(entity)
-                .add(linkTo(methodOn(UserResource.class).findById(entity.getId())).withRel("Get a user"))
-                .add(linkTo(methodOn(UserResource.class).findAll(null)).withRel("Get all users"))
-                .add(linkTo(methodOn(UserResource.class).update(entity.getId(), new UserDTO(entity))).withRel("Update a user"))
-                .add(linkTo(methodOn(UserResource.class).delete(entity.getId())).withRel("Delete user"));
+                .add(USER_BY_ID.withRel("Get a user", entity.getId()))
+                .add(ALL_USERS.withRel("Get all users"))
+                .add(UPDATE_USER.withRel("Update a user", entity.getId()))
+                .add(DELETE_USER.withRel("Delete user", entity.getId()));
     }
 
     @Transactional
     public UserDTO update(Long id, UserDTO dto) {
         try {
             User entity = userRepository.getReferenceById(id);
+            // Nome antigo e novo: a alteração pode trocar o username
+            userDetailsCache.evict(entity.getUsername());
             copyDtoToEntity(dto, entity);
+            userDetailsCache.evict(entity.getUsername());
             entity.setUpdatedAt(Instant.now());
             entity = userRepository.save(entity);
             return new UserDTO(entity)
-                    .add(linkTo(methodOn(UserResource.class).findById(id)).withRel("Find user by id"))
-                    .add(linkTo(methodOn(UserResource.class).findAll(null)).withRel("All users"))
-                    .add(linkTo(methodOn(UserResource.class).delete(id)).withRel("Delete user"));
+                    .add(USER_BY_ID.withRel("Find user by id", id))
+                    .add(ALL_USERS.withRel("All users"))
+                    .add(DELETE_USER.withRel("Delete user", id));
         } catch (EntityNotFoundException e) {
             throw new RuntimeException("Usuário não encontrado! ID: " + id);
         }
     }
 
     public void delete(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("Usuário não encontrado! ID: " + id);
-        }
+        String username = userRepository.findUsernameById(id).orElseThrow(
+                () -> new RuntimeException("Usuário não encontrado! ID: " + id)
+        );
         try {
             userRepository.deleteById(id);
+            userDetailsCache.evict(username);
         } catch (DataIntegrityViolationException e) {
             throw new RuntimeException("Violação de integridade: este usuário não pode ser deletado.");
         }
@@ -104,22 +146,49 @@ public class UserService implements UserDetailsService {
 
     @Transactional(readOnly = true)
     public Page<UserDTO> findAllClients(Pageable pageable) {
-        Page<User> page = userRepository.findAllClients(pageable);
-        return page.map(user -> new UserDTO(user)
-                .add(linkTo(methodOn(UserResource.class).findAllClients(null)).withSelfRel())
-                .add(linkTo(methodOn(UserResource.class).findClientById(user.getId())).withRel("Get a client"))
-        );
+        Page<UserSummaryProjection> page = userRepository.findAllClientSummaries(pageable);
+        RepresentationOptions options = RepresentationOptions.current();
+        Map<Long, Set<RoleDTO>> rolesByUser = findRolesByUser(page.getContent(), options);
+        Link self = options.links() ? ALL_CLIENTS.withSelfRel() : null;
+        return page.map(user -> {
+            UserDTO dto = new UserDTO(user, rolesByUser.getOrDefault(user.id(), Set.of()));
+            return options.links() ? dto.add(self).add(CLIENT_BY_ID.withRel("Get a client", user.id())) : dto;
+        });
     }
 
 
+    @Transactional(readOnly = true)
+    public CursorSliceDTO<UserDTO> findAllClientsAfter(String after, int size) {
+        List<UserSummaryProjection> rows = userRepository.findClientSummariesAfter(
+                CursorSliceDTO.decodeCursor(after), PageRequest.of(0, CursorSliceDTO.checkSize(size) + 1));
+        RepresentationOptions options = RepresentationOptions.current();
+        Map<Long, Set<RoleDTO>> rolesByUser = findRolesByUser(rows, options);
+        return CursorSliceDTO.of(rows, size, UserSummaryProjection::id, user -> {
+            UserDTO dto = new UserDTO(user, rolesByUser.getOrDefault(user.id(), Set.of()));
+            return options.links() ? dto.add(CLIENT_BY_ID.withRel("Get a client", user.id())) : dto;
+        });
+    }
+
     @Transactional(readOnly = true)
     public UserDTO findClientById(Long id) {
         User user = userRepository.findClientById(id).orElseThrow(
                 () -> new RuntimeException("Cliente não encontrado ou usuário não é um cliente! ID: " + id)
         );
-        return new UserDTO(user)
-                .add(linkTo(methodOn(UserResource.class).findClientById(id)).withSelfRel())
-                .add(linkTo(methodOn(UserResource.class).findAllClients(null)).withRel("Get all clients"));
+        UserDTO dto = new UserDTO(user);
+        if (!RepresentationOptions.current().links()) {
+            return dto;
+        }
+        return dto.add(CLIENT_BY_ID.withSelfRel(id))
+                .add(ALL_CLIENTS.withRel("Get all clients"));
+    }
+
+    // Papéis de todos os usuários da página em uma consulta (nenhuma, se roles ficou fora de ?fields)
+    private Map<Long, Set<RoleDTO>> findRolesByUser(List<UserSummaryProjection> users, RepresentationOptions options) {
+        if (users.isEmpty() || !options.includes("roles")) {
+            return Map.of();
+        }
+        List<Long> ids = users.stream().map(UserSummaryProjection::id).toList();
+        return RoleDTO.groupByUser(userRepository.findRolesByUserIds(ids));
     }
 
     private void copyDtoToEntity(UserDTO dto, User entity) {
@@ -139,6 +208,10 @@ public class UserService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::searchUserDetails);
+    }
+
+    private User searchUserDetails(String username) {
         List<UserDetailsProjection> result = userRepository.searchUserAndRoleByUsername(username);
         if (result.isEmpty()) {
             throw new UsernameNotFoundException("Usuário não encontrado: " + username);
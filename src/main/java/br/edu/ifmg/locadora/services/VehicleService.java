@@ -1,52 +1,105 @@
 package br.edu.ifmg.locadora.services;
 
+import br.edu.ifmg.locadora.dtos.CursorSliceDTO;
 import br.edu.ifmg.locadora.dtos.VehicleDTO;
+import br.edu.ifmg.locadora.dtos.VehicleImportResultDTO;
 import br.edu.ifmg.locadora.entities.Vehicle;
+import br.edu.ifmg.locadora.projections.VehicleSummaryProjection;
 import br.edu.ifmg.locadora.repositories.RentalRepository;
 import br.edu.ifmg.locadora.repositories.VehicleRepository;
 import br.edu.ifmg.locadora.resources.VehicleResource;
+import br.edu.ifmg.locadora.resources.links.LinkFactory;
+import br.edu.ifmg.locadora.resources.links.LinkTemplate;
+import br.edu.ifmg.locadora.resources.representation.RepresentationOptions;
+import br.edu.ifmg.locadora.services.availability.DayAvailabilityCalendar;
+import br.edu.ifmg.locadora.services.availability.RentalIntervalIndex;
+import br.edu.ifmg.locadora.services.bulk.VehicleBulkImporter;
+import br.edu.ifmg.locadora.services.catalog.VehicleCatalogVersion;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.hateoas.Link;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 @Service
 public class VehicleService {
 
+    private static final LinkTemplate ALL_VEHICLES = LinkFactory.forMethod(VehicleResource.class, "findAll");
+    private static final LinkTemplate VEHICLE_BY_ID = LinkFactory.forMethod(VehicleResource.class, "findById");
+    private static final LinkTemplate UPDATE_VEHICLE = LinkFactory.forMethod(VehicleResource.class, "update");
+    private static final LinkTemplate DELETE_VEHICLE = LinkFactory.forMethod(VehicleResource.class, "delete");
+
     @Autowired
     private VehicleRepository vehicleRepository;
     @Autowired
     private RentalRepository rentalRepository;
+    @Autowired
+    private RentalIntervalIndex rentalIntervalIndex;
+    @Autowired
+    private DayAvailabilityCalendar dayAvailabilityCalendar;
+    @Autowired
+    private VehicleBulkImporter vehicleBulkImporter;
+    @Autowired
+    private VehicleCatalogVersion vehicleCatalogVersion;
 
-    @Transactional(readOnly = true)
+    // Limite de ids por consulta IN ao hidratar o resultado da busca de disponibilidade
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    // Leituras que recebem ETag da versão do catálogo ficam no primário (sem readOnly): numa réplica atrasada
+    // o dado antigo seria respondido, e lembrado, com a versão nova até a próxima escrita
+    @Transactional
     public Page<VehicleDTO> findAll(Pageable pageable) {
-        Page<Vehicle> page = vehicleRepository.findAll(pageable);
-        return page.map(
-                vehicle -> new VehicleDTO(vehicle)
-                        .add(linkTo(methodOn(VehicleResource.class).findAll(null)).withSelfRel())
-                        .add(linkTo(methodOn(VehicleResource.class).findById(vehicle.getId())).withRel("Get a vehicle"))
-        );
+        Page<VehicleSummaryProjection> page = vehicleRepository.findAllSummaries(pageable);
+        // Com ?links=none os links nem são montados; o da listagem é o mesmo para todos os itens da página
+        RepresentationOptions options = RepresentationOptions.current();
+        Link self = options.links() ? ALL_VEHICLES.withSelfRel() : null;
+        return page.map(vehicle -> {
+            VehicleDTO dto = new VehicleDTO(vehicle);
+            return options.links() ? dto.add(self).add(VEHICLE_BY_ID.withRel("Get a vehicle", vehicle.id())) : dto;
+        });
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
+    public CursorSliceDTO<VehicleDTO> findAllAfter(String after, int size) {
+        List<VehicleSummaryProjection> rows = vehicleRepository.findSummariesAfter(
+                CursorSliceDTO.decodeCursor(after), PageRequest.of(0, CursorSliceDTO.checkSize(size) + 1));
+        RepresentationOptions options = RepresentationOptions.current();
+        return CursorSliceDTO.of(rows, size, VehicleSummaryProjection::id, vehicle -> {
+            VehicleDTO dto = new VehicleDTO(vehicle);
+            return options.links() ? dto.add(VEHICLE_BY_ID.withRel("Get a vehicle", vehicle.id())) : dto;
+        });
+    }
+
+    @Transactional
     public VehicleDTO findById(Long id) {
+        long catalogVersion = vehicleCatalogVersion.current();
         Vehicle vehicle = vehicleRepository.findById(id).orElseThrow(
                 () -> new RuntimeException("Veículo não encontrado! ID: " + id)
         );
-        return new VehicleDTO(vehicle)
-                .add(linkTo(methodOn(VehicleResource.class).findById(id)).withSelfRel())
-                .add(linkTo(methodOn(VehicleResource.class).update(id, new VehicleDTO(vehicle))).withRel("Update a vehicle"))
-                .add(linkTo(methodOn(VehicleResource.class).delete(id)).withRel("Delete a vehicle"));
+        vehicleCatalogVersion.remember(vehicle, catalogVersion);
+        VehicleDTO dto = new VehicleDTO(vehicle);
+        if (!RepresentationOptions.current().links()) {
+            return dto;
+        }
+        return dto.add(VEHICLE_BY_ID.withSelfRel(id))
+                .add(UPDATE_VEHICLE.withRel("Update a vehicle", id))
+                .add(DELETE_VEHICLE.withRel("Delete a vehicle", id));
     }
 
     @Transactional
@@ -56,11 +109,18 @@ public class VehicleService {
         entity.setCreatedAt(Instant.now());
         entity.setUpdatedAt(Instant.now());
         entity = vehicleRepository.save(entity);
+        rentalIntervalIndex.vehicleAdded(entity.getId());
+        vehicleCatalogVersion.changed();
         return new VehicleDTO(entity)
-                .add(linkTo(methodOn(VehicleResource.class).findById(entity.getId())).withRel("Get a vehicle"))
-                .add(linkTo(methodOn(VehicleResource.class).findAll(null)).withRel("All vehicles"))
-                .add(linkTo(methodOn(VehicleResource.class).update(entity.getId(), new VehicleDTO(entity))).withRel("Update vehicle"))
-                .add(linkTo(methodOn(VehicleResource.class).delete(entity.getId())).withRel("Delete vehicle"));
+                .add(VEHICLE_BY_ID.withRel("Get a vehicle", entity.getId()))
+                .add(ALL_VEHICLES.withRel("All vehicles"))
+                .add(UPDATE_VEHICLE.withRel("Update vehicle", entity.getId()))
+                .add(DELETE_VEHICLE.withRel("Delete vehicle", entity.getId()));
+    }
+
+    // Sem @Transactional: cada bloco de linhas é gravado na sua própria transação
+    public VehicleImportResultDTO importBulk(MediaType contentType, InputStream body) throws IOException {
+        return vehicleBulkImporter.importVehicles(contentType, body);
     }
 
     @Transactional
@@ -70,10 +130,11 @@ public class VehicleService {
             copyDtoToEntity(dto, entity);
             entity.setUpdatedAt(Instant.now());
             entity = vehicleRepository.save(entity);
+            vehicleCatalogVersion.changed();
             return new VehicleDTO(entity)
-                    .add(linkTo(methodOn(VehicleResource.class).findById(entity.getId())).withSelfRel())
-                    .add(linkTo(methodOn(VehicleResource.class).findAll(null)).withRel("All vehicles"))
-                    .add(linkTo(methodOn(VehicleResource.class).delete(entity.getId())).withRel("Delete vehicle"));
+                    .add(VEHICLE_BY_ID.withSelfRel(entity.getId()))
+                    .add(ALL_VEHICLES.withRel("All vehicles"))
+                    .add(DELETE_VEHICLE.withRel("Delete vehicle", entity.getId()));
         } catch (EntityNotFoundException e) {
             throw new RuntimeException("Veículo não encontrado! ID: " + id);
         }
@@ -93,6 +154,8 @@ public class VehicleService {
         try {
             Vehicle vehicle = vehicleRepository.getReferenceById(id);
             vehicleRepository.delete(vehicle);
+            rentalIntervalIndex.vehicleRemoved(id);
+            vehicleCatalogVersion.changed();
             return new VehicleDTO(vehicle);
         } catch (DataIntegrityViolationException e) {
             // Este bloco agora serve como uma segunda camada de segurança.
@@ -111,14 +174,49 @@ public class VehicleService {
         Instant startInstant = startDate.atStartOfDay().toInstant(ZoneOffset.UTC);
         Instant endInstant = endDate.atTime(LocalTime.MAX).toInstant(ZoneOffset.UTC);
 
-        List<Vehicle> vehicles = vehicleRepository.findAvailableVehicles(startInstant, endInstant);
+        // Calendário por dia -> índice de intervalos -> consulta no banco
+        Optional<List<Long>> availableIds = dayAvailabilityCalendar.findAvailableVehicleIds(startDate, endDate);
+        if (availableIds.isEmpty() && rentalIntervalIndex.isReady()) {
+            availableIds = Optional.of(rentalIntervalIndex.findAvailableVehicleIds(startInstant, endInstant));
+        }
+        List<Vehicle> vehicles = availableIds.isPresent()
+                ? findAllInIdOrder(availableIds.get())
+                : vehicleRepository.findAvailableVehicles(startInstant, endInstant);
 
+        boolean links = RepresentationOptions.current().links();
         return vehicles.stream()
-                .map(vehicle -> new VehicleDTO(vehicle)
-                        .add(linkTo(methodOn(VehicleResource.class).findById(vehicle.getId())).withSelfRel()))
+                .map(vehicle -> links ? new VehicleDTO(vehicle).add(VEHICLE_BY_ID.withSelfRel(vehicle.getId())) : new VehicleDTO(vehicle))
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public long countAvailable(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("A data de início não pode ser posterior à data de fim.");
+        }
+
+        OptionalLong count = dayAvailabilityCalendar.countAvailableVehicles(startDate, endDate);
+        if (count.isPresent()) {
+            return count.getAsLong();
+        }
+
+        Instant startInstant = startDate.atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant endInstant = endDate.atTime(LocalTime.MAX).toInstant(ZoneOffset.UTC);
+        if (rentalIntervalIndex.isReady()) {
+            return rentalIntervalIndex.findAvailableVehicleIds(startInstant, endInstant).size();
+        }
+        return vehicleRepository.countAvailableVehicles(startInstant, endInstant);
+    }
+
+    private List<Vehicle> findAllInIdOrder(List<Long> ids) {
+        List<Vehicle> vehicles = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            vehicles.addAll(vehicleRepository.findByIdInOrderByIdAsc(chunk));
+        }
+        return vehicles;
+    }
+
     private void copyDtoToEntity(VehicleDTO dto, Vehicle entity) {
         entity.setBrand(dto.getBrand());
         entity.setModel(dto.getModel());
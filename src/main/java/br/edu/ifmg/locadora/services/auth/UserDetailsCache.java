@@ -0,0 +1,88 @@
+package br.edu.ifmg.locadora.services.auth;
+
+import br.edu.ifmg.locadora.entities.Role;
+import br.edu.ifmg.locadora.entities.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+// Cache username -> senha (hash) + papéis usado na emissão de tokens (UserService.loadUserByUsername).
+// Evita a junção tb_user/user_role a cada login. Alterações de senha, papéis ou usuário devem chamar evict();
+// alterações feitas em outra instância só são vistas aqui depois do TTL.
+// Métricas: cache.gets{cache=userDetails,result=hit|miss}, cache.evictions, cache.size
+@Component
+public class UserDetailsCache {
+
+    public static final String CACHE_NAME = "userDetails";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.user-details-cache.max-size}")
+    private long maxSize;
+
+    @Value("${security.user-details-cache.ttl}")
+    private Duration ttl;
+
+    private Cache<String, Credentials> cache;
+
+    // Cópia imutável: cada chamada recebe um User novo (o ProviderManager apaga a senha do principal após a autenticação)
+    private record Credentials(String username, String password, List<Role> roles) {
+
+        static Credentials of(User user) {
+            return new Credentials(user.getUsername(), user.getPassword(),
+                    user.getRoles().stream().map(role -> new Role(role.getId(), role.getAuthority())).toList());
+        }
+
+        User toUser() {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword(password);
+            roles.forEach(role -> user.addRole(new Role(role.getId(), role.getAuthority())));
+            return user;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // Usuário do cache ou carregado pelo loader (que pode lançar UsernameNotFoundException; ausências não são guardadas)
+    public User get(String username, Function<String, User> loader) {
+        return cache.get(username, key -> Credentials.of(loader.apply(key))).toUser();
+    }
+
+    // Remove agora e, dentro de uma transação, de novo após o commit: um login concorrente
+    // não deixa no cache os dados lidos antes da alteração
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package br.edu.ifmg.locadora.services.availability;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Calendário de ocupação por dia (UTC): um bitset long[] por veículo, um bit por dia, cobrindo
+// a janela [hoje, hoje + horizonte). Os bitsets são derivados do RentalIntervalIndex e substituídos
+// por inteiro a cada alteração, então as buscas leem sem sincronização.
+// Períodos fora da janela retornam vazio e o chamador deve usar o índice de intervalos.
+@Component
+public class DayAvailabilityCalendar implements RentalIntervalListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DayAvailabilityCalendar.class);
+    private static final long MICROS_PER_DAY = 86_400_000_000L;
+
+    @Value("${availability.calendar.horizon-days}")
+    private int horizonDays;
+
+    @Autowired
+    private RentalIntervalIndex rentalIntervalIndex;
+
+    private Clock clock = Clock.systemUTC();
+
+    private volatile Window window;
+
+    @Override
+    public synchronized void intervalsReloaded() {
+        rebuild();
+    }
+
+    @Override
+    public synchronized void intervalsChanged(long vehicleId, VehicleIntervals intervals) {
+        Window current = window;
+        if (current == null) {
+            return;
+        }
+        if (intervals == null) {
+            current.bitsByVehicle.remove(vehicleId);
+        } else {
+            current.bitsByVehicle.put(vehicleId, current.toBits(intervals));
+        }
+    }
+
+    // Desloca a janela para começar no dia corrente
+    @Scheduled(cron = "${availability.calendar.roll-cron}", zone = "UTC")
+    public synchronized void roll() {
+        if (rentalIntervalIndex.isReady()) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return window != null;
+    }
+
+    // Ids (em ordem crescente) dos veículos livres em todos os dias de startDate a endDate (inclusive)
+    public Optional<List<Long>> findAvailableVehicleIds(LocalDate startDate, LocalDate endDate) {
+        Window current = window;
+        if (current == null || !current.covers(startDate, endDate)) {
+            return Optional.empty();
+        }
+        long[] mask = current.mask(startDate, endDate);
+        int firstWord = current.firstWord(startDate);
+        int lastWord = current.lastWord(endDate);
+
+        long[] ids = new long[current.bitsByVehicle.size()];
+        int count = 0;
+        for (Map.Entry<Long, long[]> entry : current.bitsByVehicle.entrySet()) {
+            if (isFree(entry.getValue(), mask, firstWord, lastWord)) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2 + 1);
+                }
+                ids[count++] = entry.getKey();
+            }
+        }
+        Arrays.sort(ids, 0, count);
+
+        List<Long> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(ids[i]);
+        }
+        return Optional.of(result);
+    }
+
+    public OptionalLong countAvailableVehicles(LocalDate startDate, LocalDate endDate) {
+        Window current = window;
+        if (current == null || !current.covers(startDate, endDate)) {
+            return OptionalLong.empty();
+        }
+        long[] mask = current.mask(startDate, endDate);
+        int firstWord = current.firstWord(startDate);
+        int lastWord = current.lastWord(endDate);
+
+        long count = 0;
+        for (long[] bits : current.bitsByVehicle.values()) {
+            if (isFree(bits, mask, firstWord, lastWord)) {
+                count++;
+            }
+        }
+        return OptionalLong.of(count);
+    }
+
+    private static boolean isFree(long[] bits, long[] mask, int firstWord, int lastWord) {
+        long booked = 0;
+        for (int w = firstWord; w <= lastWord; w++) {
+            booked |= bits[w] & mask[w];
+        }
+        return booked == 0;
+    }
+
+    private void rebuild() {
+        long firstDay = LocalDate.now(clock).toEpochDay();
+        Window rebuilt = new Window(firstDay, horizonDays);
+        rentalIntervalIndex.forEachVehicle((vehicleId, intervals) -> rebuilt.bitsByVehicle.put(vehicleId, rebuilt.toBits(intervals)));
+        window = rebuilt;
+        logger.info("Calendário de disponibilidade reconstruído a partir de {}: {} veículos, {} dias",
+                LocalDate.ofEpochDay(firstDay), rebuilt.bitsByVehicle.size(), horizonDays);
+    }
+
+    private static final class Window {
+        private final long firstDay;
+        private final int days;
+        private final int words;
+        private final Map<Long, long[]> bitsByVehicle = new ConcurrentHashMap<>();
+
+        Window(long firstDay, int days) {
+            this.firstDay = firstDay;
+            this.days = days;
+            this.words = (days + 63) >>> 6;
+        }
+
+        boolean covers(LocalDate startDate, LocalDate endDate) {
+            long start = startDate.toEpochDay() - firstDay;
+            long end = endDate.toEpochDay() - firstDay;
+            return start >= 0 && end < days && start <= end;
+        }
+
+        int firstWord(LocalDate startDate) {
+            return (int) (startDate.toEpochDay() - firstDay) >>> 6;
+        }
+
+        int lastWord(LocalDate endDate) {
+            return (int) (endDate.toEpochDay() - firstDay) >>> 6;
+        }
+
+        long[] mask(LocalDate startDate, LocalDate endDate) {
+            long[] mask = new long[words];
+            setRange(mask, (int) (startDate.toEpochDay() - firstDay), (int) (endDate.toEpochDay() - firstDay));
+            return mask;
+        }
+
+        // Um dia fica ocupado se algum aluguel se sobrepõe a [00:00, 24:00) daquele dia
+        long[] toBits(VehicleIntervals intervals) {
+            long[] bits = new long[words];
+            long lastDay = firstDay + days - 1;
+            for (int i = 0; i < intervals.size(); i++) {
+                long start = intervals.startAt(i);
+                long end = Math.max(intervals.endAt(i), start + 1);
+                long from = Math.max(Math.floorDiv(start, MICROS_PER_DAY), firstDay);
+                long to = Math.min(Math.floorDiv(end - 1, MICROS_PER_DAY), lastDay);
+                if (from <= to) {
+                    setRange(bits, (int) (from - firstDay), (int) (to - firstDay));
+                }
+            }
+            return bits;
+        }
+
+        private static void setRange(long[] bits, int fromBit, int toBit) {
+            int fromWord = fromBit >>> 6;
+            int toWord = toBit >>> 6;
+            for (int w = fromWord; w <= toWord; w++) {
+                long word = -1L;
+                if (w == fromWord) {
+                    word &= -1L << (fromBit & 63);
+                }
+                if (w == toWord) {
+                    word &= -1L >>> (63 - (toBit & 63));
+                }
+                bits[w] |= word;
+            }
+        }
+    }
+}
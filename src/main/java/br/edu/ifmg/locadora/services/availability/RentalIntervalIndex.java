@@ -0,0 +1,193 @@
+package br.edu.ifmg.locadora.services.availability;
+
+import br.edu.ifmg.locadora.projections.RentalIntervalProjection;
+import br.edu.ifmg.locadora.repositories.RentalRepository;
+import br.edu.ifmg.locadora.repositories.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+// Índice em memória dos aluguéis de cada veículo. Responde às verificações de conflito e à busca
+// de veículos disponíveis sem consultar o banco. Enquanto não estiver carregado (isReady() == false),
+// os serviços devem usar as consultas do repositório.
+@Component
+public class RentalIntervalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalIntervalIndex.class);
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ObjectProvider<RentalIntervalListener> listeners;
+
+    private volatile Map<Long, VehicleIntervals> intervalsByVehicle = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // Alterações recebidas durante a carga são reaplicadas sobre o novo mapa (todas são idempotentes)
+    private final Object loadMonitor = new Object();
+    private boolean loading;
+    private final List<Runnable> pendingDuringLoad = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        synchronized (loadMonitor) {
+            loading = true;
+            pendingDuringLoad.clear();
+        }
+
+        Map<Long, IntervalsBuilder> builders = new HashMap<>();
+        for (Long vehicleId : vehicleRepository.findAllIds()) {
+            builders.put(vehicleId, new IntervalsBuilder());
+        }
+        long rentals = 0;
+        try (Stream<RentalIntervalProjection> rows = rentalRepository.streamAllIntervals()) {
+            for (RentalIntervalProjection row : (Iterable<RentalIntervalProjection>) rows::iterator) {
+                builders.computeIfAbsent(row.vehicleId(), id -> new IntervalsBuilder())
+                        .add(row.rentalId(), VehicleIntervals.toMicros(row.rentalDate()), VehicleIntervals.toMicros(row.returnDate()));
+                rentals++;
+            }
+        }
+
+        ConcurrentHashMap<Long, VehicleIntervals> loaded = new ConcurrentHashMap<>(Math.max(16, builders.size() * 2));
+        builders.forEach((vehicleId, builder) -> loaded.put(vehicleId, builder.build()));
+
+        synchronized (loadMonitor) {
+            intervalsByVehicle = loaded;
+            pendingDuringLoad.forEach(Runnable::run);
+            pendingDuringLoad.clear();
+            loading = false;
+            ready = true;
+            listeners.forEach(RentalIntervalListener::intervalsReloaded);
+        }
+        logger.info("Índice de aluguéis carregado: {} veículos, {} aluguéis", loaded.size(), rentals);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean hasConflict(long vehicleId, Instant rentalDate, Instant returnDate) {
+        VehicleIntervals intervals = intervalsByVehicle.getOrDefault(vehicleId, VehicleIntervals.EMPTY);
+        return intervals.overlaps(VehicleIntervals.toMicros(rentalDate), VehicleIntervals.toMicros(returnDate));
+    }
+
+    public void forEachVehicle(BiConsumer<Long, VehicleIntervals> action) {
+        intervalsByVehicle.forEach(action);
+    }
+
+    // Ids (em ordem crescente) dos veículos sem aluguel que sobreponha o período informado
+    public List<Long> findAvailableVehicleIds(Instant startDate, Instant endDate) {
+        long start = VehicleIntervals.toMicros(startDate);
+        long end = VehicleIntervals.toMicros(endDate);
+        Map<Long, VehicleIntervals> snapshot = intervalsByVehicle;
+
+        long[] ids = new long[snapshot.size()];
+        int count = 0;
+        for (Map.Entry<Long, VehicleIntervals> entry : snapshot.entrySet()) {
+            if (!entry.getValue().overlaps(start, end)) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2 + 1);
+                }
+                ids[count++] = entry.getKey();
+            }
+        }
+        Arrays.sort(ids, 0, count);
+
+        List<Long> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(ids[i]);
+        }
+        return result;
+    }
+
+    // As alterações abaixo só são aplicadas após o commit da transação corrente
+
+    public void rentalSaved(long vehicleId, long rentalId, Instant rentalDate, Instant returnDate) {
+        long start = VehicleIntervals.toMicros(rentalDate);
+        long end = VehicleIntervals.toMicros(returnDate);
+        afterCommit(vehicleId, () -> intervalsByVehicle.compute(vehicleId,
+                (id, current) -> (current == null ? VehicleIntervals.EMPTY : current).with(rentalId, start, end)));
+    }
+
+    public void rentalRemoved(long vehicleId, long rentalId) {
+        afterCommit(vehicleId, () -> intervalsByVehicle.computeIfPresent(vehicleId, (id, current) -> current.without(rentalId)));
+    }
+
+    public void vehicleAdded(long vehicleId) {
+        afterCommit(vehicleId, () -> intervalsByVehicle.putIfAbsent(vehicleId, VehicleIntervals.EMPTY));
+    }
+
+    public void vehicleRemoved(long vehicleId) {
+        afterCommit(vehicleId, () -> intervalsByVehicle.remove(vehicleId));
+    }
+
+    private void afterCommit(long vehicleId, Runnable mutation) {
+        Runnable apply = () -> {
+            synchronized (loadMonitor) {
+                if (loading) {
+                    pendingDuringLoad.add(mutation);
+                } else {
+                    mutation.run();
+                    VehicleIntervals current = intervalsByVehicle.get(vehicleId);
+                    listeners.forEach(listener -> listener.intervalsChanged(vehicleId, current));
+                }
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private static final class IntervalsBuilder {
+        private long[] rentalIds = new long[4];
+        private long[] starts = new long[4];
+        private long[] ends = new long[4];
+        private int size;
+
+        void add(long rentalId, long start, long end) {
+            if (size == starts.length) {
+                rentalIds = Arrays.copyOf(rentalIds, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            rentalIds[size] = rentalId;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        VehicleIntervals build() {
+            return VehicleIntervals.of(rentalIds, starts, ends, size);
+        }
+    }
+}
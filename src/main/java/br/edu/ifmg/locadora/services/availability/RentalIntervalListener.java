@@ -0,0 +1,11 @@
+package br.edu.ifmg.locadora.services.availability;
+
+// Recebe as alterações aplicadas ao RentalIntervalIndex (sempre após o commit e em ordem)
+public interface RentalIntervalListener {
+
+    // O índice foi (re)carregado por completo
+    void intervalsReloaded();
+
+    // Novo snapshot do veículo; null quando o veículo foi removido
+    void intervalsChanged(long vehicleId, VehicleIntervals intervals);
+}
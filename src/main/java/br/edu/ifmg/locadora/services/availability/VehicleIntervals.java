@@ -0,0 +1,161 @@
+package br.edu.ifmg.locadora.services.availability;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+// Snapshot imutável dos aluguéis de um veículo, ordenados pela data de retirada.
+// Os instantes são guardados em microssegundos desde a época (mesma precisão do TIMESTAMP do banco).
+public final class VehicleIntervals {
+
+    static final VehicleIntervals EMPTY = new VehicleIntervals(new long[0], new long[0], new long[0], new long[0]);
+
+    private final long[] rentalIds;
+    private final long[] starts;
+    private final long[] ends;
+    // maxEnds[i] = maior data de devolução entre os intervalos 0..i
+    private final long[] maxEnds;
+
+    private VehicleIntervals(long[] rentalIds, long[] starts, long[] ends, long[] maxEnds) {
+        this.rentalIds = rentalIds;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = maxEnds;
+    }
+
+    static VehicleIntervals of(long[] rentalIds, long[] starts, long[] ends, int size) {
+        if (size == 0) {
+            return EMPTY;
+        }
+        long[] ids = Arrays.copyOf(rentalIds, size);
+        long[] s = Arrays.copyOf(starts, size);
+        long[] e = Arrays.copyOf(ends, size);
+        if (!isSorted(s)) {
+            sortByStart(ids, s, e);
+        }
+        return new VehicleIntervals(ids, s, e, prefixMax(e));
+    }
+
+    public static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    // Mesma semântica de RentalRepository.existsRentalConflict: rentalDate < end AND returnDate > start
+    public boolean overlaps(long start, long end) {
+        int candidates = countStartingBefore(end);
+        return candidates > 0 && maxEnds[candidates - 1] > start;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public long rentalIdAt(int i) {
+        return rentalIds[i];
+    }
+
+    public long startAt(int i) {
+        return starts[i];
+    }
+
+    public long endAt(int i) {
+        return ends[i];
+    }
+
+    VehicleIntervals with(long rentalId, long start, long end) {
+        VehicleIntervals base = without(rentalId);
+        int n = base.size();
+        int pos = base.countStartingBefore(start + 1);
+
+        long[] ids = new long[n + 1];
+        long[] s = new long[n + 1];
+        long[] e = new long[n + 1];
+        insertAt(base.rentalIds, ids, pos, rentalId);
+        insertAt(base.starts, s, pos, start);
+        insertAt(base.ends, e, pos, end);
+        return new VehicleIntervals(ids, s, e, prefixMax(e));
+    }
+
+    VehicleIntervals without(long rentalId) {
+        int pos = -1;
+        for (int i = 0; i < rentalIds.length; i++) {
+            if (rentalIds[i] == rentalId) {
+                pos = i;
+                break;
+            }
+        }
+        if (pos < 0) {
+            return this;
+        }
+        int n = rentalIds.length - 1;
+        if (n == 0) {
+            return EMPTY;
+        }
+        long[] ids = removeAt(rentalIds, pos);
+        long[] s = removeAt(starts, pos);
+        long[] e = removeAt(ends, pos);
+        return new VehicleIntervals(ids, s, e, prefixMax(e));
+    }
+
+    // Quantidade de intervalos com início estritamente anterior a value (busca binária)
+    private int countStartingBefore(long value) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long[] prefixMax(long[] ends) {
+        long[] result = new long[ends.length];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            result[i] = max;
+        }
+        return result;
+    }
+
+    private static void insertAt(long[] source, long[] target, int pos, long value) {
+        System.arraycopy(source, 0, target, 0, pos);
+        target[pos] = value;
+        System.arraycopy(source, pos, target, pos + 1, source.length - pos);
+    }
+
+    private static long[] removeAt(long[] source, int pos) {
+        long[] target = new long[source.length - 1];
+        System.arraycopy(source, 0, target, 0, pos);
+        System.arraycopy(source, pos + 1, target, pos, source.length - pos - 1);
+        return target;
+    }
+
+    private static boolean isSorted(long[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1] > values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void sortByStart(long[] ids, long[] starts, long[] ends) {
+        Integer[] order = new Integer[starts.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+        long[] ids2 = ids.clone();
+        long[] starts2 = starts.clone();
+        long[] ends2 = ends.clone();
+        for (int i = 0; i < order.length; i++) {
+            ids[i] = ids2[order[i]];
+            starts[i] = starts2[order[i]];
+            ends[i] = ends2[order[i]];
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package br.edu.ifmg.locadora.services.booking;
+
+import br.edu.ifmg.locadora.services.exceptions.ConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Locks por veículo (em faixas) para a seção "verifica conflito e salva" das reservas.
+// Reservas de veículos diferentes seguem em paralelo; reservas do mesmo veículo são serializadas.
+// O lock é mantido até o fim da transação, para que o próximo na fila já enxergue o aluguel gravado.
+@Component
+public class BookingLockManager {
+
+    @Value("${booking.lock.stripes}")
+    private int stripes;
+
+    @Value("${booking.lock.timeout-ms}")
+    private long timeoutMillis;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ReentrantLock[] locks;
+    private Timer waitTimer;
+    private Counter contendedCounter;
+
+    @PostConstruct
+    public void init() {
+        // Potência de 2 para calcular a faixa com máscara
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        waitTimer = Timer.builder("booking.lock.wait")
+                .description("Tempo de espera pelo lock de reserva do veículo")
+                .register(meterRegistry);
+        contendedCounter = Counter.builder("booking.lock.contended")
+                .description("Aquisições do lock de reserva que precisaram esperar")
+                .register(meterRegistry);
+    }
+
+    // Bloqueia os veículos informados até o commit/rollback da transação corrente
+    public void lockUntilCompletion(long... vehicleIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("O lock de reserva exige uma transação ativa.");
+        }
+
+        // Ordem fixa de aquisição (por faixa) para evitar deadlock ao bloquear mais de um veículo
+        int[] stripeIndexes = Arrays.stream(vehicleIds).mapToInt(this::stripeOf).distinct().sorted().toArray();
+        int acquired = 0;
+        try {
+            for (int stripe : stripeIndexes) {
+                acquire(locks[stripe]);
+                acquired++;
+            }
+        } finally {
+            if (acquired < stripeIndexes.length) {
+                for (int i = acquired - 1; i >= 0; i--) {
+                    locks[stripeIndexes[i]].unlock();
+                }
+            }
+        }
+
+        // afterCompletion roda depois de todos os afterCommit (inclusive a atualização do índice de aluguéis)
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+                    locks[stripeIndexes[i]].unlock();
+                }
+            }
+        });
+    }
+
+    private void acquire(ReentrantLock lock) {
+        if (lock.tryLock()) {
+            waitTimer.record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+        contendedCounter.increment();
+        long start = System.nanoTime();
+        boolean locked;
+        try {
+            locked = lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Reserva interrompida enquanto aguardava o veículo.", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!locked) {
+            throw new ConflictException("Veículo ocupado por outra reserva. Tente novamente.");
+        }
+    }
+
+    private int stripeOf(long vehicleId) {
+        long h = vehicleId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (locks.length - 1);
+    }
+}
@@ -0,0 +1,181 @@
+package br.edu.ifmg.locadora.services.bulk;
+
+import br.edu.ifmg.locadora.dtos.VehicleDTO;
+import br.edu.ifmg.locadora.dtos.VehicleImportResultDTO;
+import br.edu.ifmg.locadora.entities.Vehicle;
+import br.edu.ifmg.locadora.repositories.VehicleRepository;
+import br.edu.ifmg.locadora.services.availability.RentalIntervalIndex;
+import br.edu.ifmg.locadora.services.catalog.VehicleCatalogVersion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Importação em massa de veículos: lê o corpo em streaming e grava em blocos de chunk-size linhas,
+// cada bloco em sua própria transação (um SELECT de placas + INSERTs em lotes JDBC).
+// Blocos já gravados permanecem mesmo que uma linha posterior seja rejeitada.
+@Component
+public class VehicleBulkImporter {
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RentalIntervalIndex rentalIntervalIndex;
+
+    @Autowired
+    private VehicleCatalogVersion vehicleCatalogVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${vehicle.import.chunk-size}")
+    private int chunkSize;
+
+    private record Rejection(long line, String licensePlate, String message) {
+    }
+
+    public VehicleImportResultDTO importVehicles(MediaType contentType, InputStream body) throws IOException {
+        VehicleImportResultDTO result = new VehicleImportResultDTO();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<VehicleRowReader.Row> chunk = new ArrayList<>(chunkSize);
+        // Placas do bloco atual; as de blocos anteriores já estão no banco e são pegas na consulta
+        Set<String> chunkPlates = new HashSet<>();
+
+        try (VehicleRowReader reader = VehicleRowReader.of(contentType, body, objectMapper)) {
+            VehicleRowReader.Row row;
+            while ((row = reader.next()) != null) {
+                result.setReceived(result.getReceived() + 1);
+                String error = row.error() != null ? row.error() : validate(row.vehicle());
+                if (error == null && !chunkPlates.add(row.vehicle().getLicensePlate())) {
+                    error = "Placa repetida no arquivo.";
+                }
+                if (error != null) {
+                    result.addError(row.line(), row.vehicle() != null ? row.vehicle().getLicensePlate() : null, error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    saveChunk(transaction, chunk, result);
+                    chunk.clear();
+                    chunkPlates.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(transaction, chunk, result);
+        }
+        return result;
+    }
+
+    private void saveChunk(TransactionTemplate transaction, List<VehicleRowReader.Row> chunk, VehicleImportResultDTO result) {
+        List<Rejection> rejections = new ArrayList<>();
+        try {
+            Integer imported = transaction.execute(status -> insertChunk(chunk, rejections));
+            result.setImported(result.getImported() + imported);
+            rejections.forEach(r -> result.addError(r.line(), r.licensePlate(), r.message()));
+        } catch (DataIntegrityViolationException e) {
+            // Placa gravada por outra requisição entre a consulta e o INSERT (ou dado recusado pelo banco):
+            // regrava o bloco linha a linha para rejeitar só as linhas com problema
+            if (chunk.size() == 1) {
+                VehicleDTO dto = chunk.get(0).vehicle();
+                result.addError(chunk.get(0).line(), dto.getLicensePlate(), "Linha rejeitada pelo banco: placa já cadastrada ou dado inválido.");
+                return;
+            }
+            for (VehicleRowReader.Row row : chunk) {
+                saveChunk(transaction, List.of(row), result);
+            }
+        }
+    }
+
+    private int insertChunk(List<VehicleRowReader.Row> chunk, List<Rejection> rejections) {
+        // Veículos importados não entram no cache de segundo nível: uma importação grande só expulsaria os veículos mais usados
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+
+        List<String> plates = new ArrayList<>(chunk.size());
+        chunk.forEach(row -> plates.add(row.vehicle().getLicensePlate()));
+        Set<String> existing = new HashSet<>(vehicleRepository.findExistingLicensePlates(plates));
+
+        Instant now = Instant.now();
+        List<Vehicle> vehicles = new ArrayList<>(chunk.size());
+        for (VehicleRowReader.Row row : chunk) {
+            VehicleDTO dto = row.vehicle();
+            if (existing.contains(dto.getLicensePlate())) {
+                rejections.add(new Rejection(row.line(), dto.getLicensePlate(), "Placa já cadastrada."));
+                continue;
+            }
+            Vehicle vehicle = new Vehicle();
+            vehicle.setBrand(dto.getBrand());
+            vehicle.setModel(dto.getModel());
+            vehicle.setLicensePlate(dto.getLicensePlate());
+            vehicle.setDailyRate(dto.getDailyRate());
+            vehicle.setImageUrl(dto.getImageUrl());
+            vehicle.setCreatedAt(now);
+            vehicle.setUpdatedAt(now);
+            vehicles.add(vehicle);
+        }
+
+        vehicleRepository.saveAll(vehicles);
+        vehicleRepository.flush();
+        for (Vehicle vehicle : vehicles) {
+            rentalIntervalIndex.vehicleAdded(vehicle.getId());
+        }
+        if (!vehicles.isEmpty()) {
+            vehicleCatalogVersion.changed();
+        }
+        return vehicles.size();
+    }
+
+    private static String validate(VehicleDTO dto) {
+        if (dto == null) {
+            return "Linha sem dados do veículo.";
+        }
+        dto.setBrand(trimToNull(dto.getBrand()));
+        dto.setModel(trimToNull(dto.getModel()));
+        dto.setLicensePlate(trimToNull(dto.getLicensePlate()));
+        dto.setImageUrl(trimToNull(dto.getImageUrl()));
+        if (dto.getBrand() == null) {
+            return "Campo obrigatório: brand.";
+        }
+        if (dto.getModel() == null) {
+            return "Campo obrigatório: model.";
+        }
+        if (dto.getLicensePlate() == null) {
+            return "Campo obrigatório: licensePlate.";
+        }
+        if (!(dto.getDailyRate() > 0) || Double.isInfinite(dto.getDailyRate())) {
+            return "O valor da diária deve ser maior que zero.";
+        }
+        return null;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,201 @@
+package br.edu.ifmg.locadora.services.bulk;
+
+import br.edu.ifmg.locadora.dtos.VehicleDTO;
+import br.edu.ifmg.locadora.services.exceptions.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Lê o corpo da importação em massa uma linha por vez (CSV com cabeçalho ou NDJSON), sem carregar o arquivo inteiro.
+// Linhas em branco são ignoradas; uma linha malformada vira um Row com erro e a leitura continua.
+public abstract class VehicleRowReader implements Closeable {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    public record Row(long line, VehicleDTO vehicle, String error) {
+    }
+
+    private final BufferedReader reader;
+    private long line;
+
+    protected VehicleRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    public static VehicleRowReader of(MediaType contentType, InputStream body, ObjectMapper objectMapper) throws IOException {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset), 64 * 1024);
+        if (TEXT_CSV.includes(contentType)) {
+            return new CsvRowReader(reader);
+        }
+        if (APPLICATION_NDJSON.includes(contentType)) {
+            return new NdjsonRowReader(reader, objectMapper.readerFor(VehicleDTO.class));
+        }
+        throw new BadRequestException("Formato não suportado na importação: " + contentType);
+    }
+
+    // Próxima linha não vazia, ou null no fim do arquivo
+    public Row next() throws IOException {
+        String text;
+        while ((text = readLine()) != null) {
+            if (!text.isBlank()) {
+                return parse(line, text);
+            }
+        }
+        return null;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    protected String readLine() throws IOException {
+        String text = reader.readLine();
+        if (text != null) {
+            line++;
+        }
+        return text;
+    }
+
+    protected abstract Row parse(long line, String text);
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // CSV com cabeçalho na primeira linha (brand, model, licensePlate, dailyRate e opcionalmente imageUrl, em qualquer ordem)
+    private static class CsvRowReader extends VehicleRowReader {
+
+        private final int brand;
+        private final int model;
+        private final int licensePlate;
+        private final int dailyRate;
+        private final int imageUrl;
+
+        CsvRowReader(BufferedReader reader) throws IOException {
+            super(reader);
+            String header = readLine();
+            if (header == null) {
+                throw new BadRequestException("Arquivo CSV vazio: o cabeçalho é obrigatório.");
+            }
+            // Ignora o BOM que alguns editores gravam no início de arquivos UTF-8
+            List<String> names = split(header.replace("\uFEFF", ""));
+            if (names == null) {
+                throw new BadRequestException("Cabeçalho do CSV inválido: aspas não fechadas.");
+            }
+            List<String> columns = new ArrayList<>();
+            for (String column : names) {
+                columns.add(column.trim().replace("_", "").toLowerCase(Locale.ROOT));
+            }
+            brand = requiredColumn(columns, "brand");
+            model = requiredColumn(columns, "model");
+            licensePlate = requiredColumn(columns, "licenseplate");
+            dailyRate = requiredColumn(columns, "dailyrate");
+            imageUrl = columns.indexOf("imageurl");
+        }
+
+        @Override
+        protected Row parse(long line, String text) {
+            List<String> values = split(text);
+            if (values == null) {
+                return new Row(line, null, "Aspas não fechadas na linha.");
+            }
+            VehicleDTO dto = new VehicleDTO();
+            dto.setBrand(value(values, brand));
+            dto.setModel(value(values, model));
+            dto.setLicensePlate(value(values, licensePlate));
+            dto.setImageUrl(value(values, imageUrl));
+            String rate = value(values, dailyRate);
+            if (rate != null) {
+                try {
+                    dto.setDailyRate(Double.parseDouble(rate));
+                } catch (NumberFormatException e) {
+                    return new Row(line, dto, "Valor da diária inválido: " + rate);
+                }
+            }
+            return new Row(line, dto, null);
+        }
+
+        private static int requiredColumn(List<String> columns, String name) {
+            int index = columns.indexOf(name);
+            if (index < 0) {
+                throw new BadRequestException("Coluna obrigatória ausente no cabeçalho do CSV: " + name);
+            }
+            return index;
+        }
+
+        private static String value(List<String> values, int index) {
+            if (index < 0 || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        // Separa os campos por vírgula, respeitando aspas duplas ("" dentro de aspas é uma aspa). Null se as aspas não fecham.
+        private static List<String> split(String text) {
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (quoted) {
+                return null;
+            }
+            values.add(current.toString());
+            return values;
+        }
+    }
+
+    // Um objeto JSON por linha, com os mesmos campos do POST /vehicles
+    private static class NdjsonRowReader extends VehicleRowReader {
+
+        private final ObjectReader objectReader;
+
+        NdjsonRowReader(BufferedReader reader, ObjectReader objectReader) {
+            super(reader);
+            this.objectReader = objectReader;
+        }
+
+        @Override
+        protected Row parse(long line, String text) {
+            try {
+                return new Row(line, objectReader.readValue(text), null);
+            } catch (JsonProcessingException e) {
+                return new Row(line, null, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package br.edu.ifmg.locadora.services.catalog;
+
+import br.edu.ifmg.locadora.entities.Vehicle;
+import br.edu.ifmg.locadora.projections.VehicleCatalogStateProjection;
+import br.edu.ifmg.locadora.repositories.VehicleRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versão do catálogo de veículos em memória, usada nas ETags de GET /vehicles e GET /vehicles/{id}.
+// As escritas do VehicleService incrementam a versão depois do commit; a revalidação de um catálogo
+// inalterado (If-None-Match igual) responde 304 sem consultar o banco.
+// Alterações feitas por outras instâncias são percebidas pela verificação periódica (syncWithDatabase).
+@Component
+public class VehicleCatalogVersion {
+
+    // Identifica esta instância: versões de instâncias diferentes nunca geram a mesma ETag
+    private final String instance = UUID.randomUUID().toString();
+
+    private final AtomicLong version = new AtomicLong();
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    // Mesmo limite do cache de segundo nível de veículos
+    @Value("${cache.l2.vehicle.max-size}")
+    private long maxItems;
+
+    // ETag de cada veículo já enviado e a versão do catálogo em que foi lida
+    private Cache<Long, KnownEtag> itemEtags;
+
+    private volatile VehicleCatalogStateProjection lastState;
+
+    private record KnownEtag(String etag, long version) {
+    }
+
+    @PostConstruct
+    void init() {
+        itemEtags = Caffeine.newBuilder().maximumSize(maxItems).build();
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    public String listEtag() {
+        return "\"catalog-" + instance + "-" + version.get() + "\"";
+    }
+
+    public static String itemEtag(Vehicle vehicle) {
+        Instant changed = vehicle.getUpdatedAt() != null ? vehicle.getUpdatedAt() : vehicle.getCreatedAt();
+        return "\"vehicle-" + vehicle.getId() + "-" + (changed == null ? 0 : changed.toEpochMilli()) + "\"";
+    }
+
+    // Guarda a ETag de um veículo lido quando o catálogo estava na versão informada (lida antes da consulta)
+    public void remember(Vehicle vehicle, long readAtVersion) {
+        itemEtags.put(vehicle.getId(), new KnownEtag(itemEtag(vehicle), readAtVersion));
+    }
+
+    // ETag do veículo sem consultar o banco; null se desconhecida ou se o catálogo mudou desde a leitura
+    public String knownItemEtag(long id) {
+        KnownEtag known = itemEtags.getIfPresent(id);
+        return known != null && known.version() == version.get() ? known.etag() : null;
+    }
+
+    // Chamado nas escritas de veículos; dentro de uma transação só vale depois do commit
+    public void changed() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+    // Consulta barata (COUNT/MAX) fora do caminho das requisições; limita quanto tempo uma instância
+    // continua respondendo 304 depois de uma alteração feita em outra
+    @Scheduled(fixedDelayString = "${vehicle.catalog.sync-interval-ms}", initialDelayString = "${vehicle.catalog.sync-interval-ms}")
+    @Transactional(readOnly = true)
+    public void syncWithDatabase() {
+        VehicleCatalogStateProjection state = vehicleRepository.findCatalogState();
+        if (lastState != null && !Objects.equals(lastState, state)) {
+            version.incrementAndGet();
+        }
+        lastState = state;
+    }
+}
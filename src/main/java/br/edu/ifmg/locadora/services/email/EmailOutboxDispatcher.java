@@ -0,0 +1,209 @@
+package br.edu.ifmg.locadora.services.email;
+
+import br.edu.ifmg.locadora.entities.EmailOutbox;
+import br.edu.ifmg.locadora.repositories.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Envia os e-mails da tb_email_outbox em lotes: cada lote usa uma única conexão SMTP (JavaMailSender.send com
+// várias mensagens). Falha de uma mensagem ou da conexão: nova tentativa com espera exponencial
+// (backoff-initial, dobrando até backoff-max); após max-attempts a linha fica DEAD. E-mails com expiração
+// (EmailOutbox.expiresAt) não são enviados depois dela nem reagendados para depois dela: viram DEAD sem o corpo.
+// Linhas DEAD são apagadas depois de dead-retention.
+// Métricas: email.outbox.sent, email.outbox.failed{outcome=retry|dead|expired}, email.outbox.dead (contagem em memória,
+// atualizada nas transições e recontada na limpeza; não consulta o banco a cada leitura)
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.mail.username}")
+    private String emailFrom;
+
+    @Value("${email.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff-initial}")
+    private Duration backoffInitial;
+
+    @Value("${email.outbox.backoff-max}")
+    private Duration backoffMax;
+
+    // Tempo máximo de um lote; depois disso outra execução pode pegar as linhas de novo
+    @Value("${email.outbox.lease}")
+    private Duration lease;
+
+    @Value("${email.outbox.dead-retention}")
+    private Duration deadRetention;
+
+    private Counter sent;
+    private Counter retried;
+    private Counter dead;
+    private Counter expired;
+    private final AtomicLong deadCount = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        sent = Counter.builder("email.outbox.sent").register(meterRegistry);
+        retried = Counter.builder("email.outbox.failed").tag("outcome", "retry").register(meterRegistry);
+        dead = Counter.builder("email.outbox.failed").tag("outcome", "dead").register(meterRegistry);
+        expired = Counter.builder("email.outbox.failed").tag("outcome", "expired").register(meterRegistry);
+        deadCount.set(repository.countByStatus(EmailOutbox.DEAD));
+        Gauge.builder("email.outbox.dead", deadCount, AtomicLong::get).register(meterRegistry);
+    }
+
+    // Apaga as linhas DEAD mais antigas que dead-retention e recalcula a contagem (inclui as de outras instâncias)
+    @Scheduled(fixedDelayString = "${email.outbox.dead-purge-interval-ms}", initialDelayString = "${email.outbox.dead-purge-interval-ms}")
+    public int purgeDead() {
+        int deleted = repository.deleteDeadBefore(Instant.now().minus(deadRetention));
+        deadCount.set(repository.countByStatus(EmailOutbox.DEAD));
+        return deleted;
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms}", initialDelayString = "${email.outbox.poll-interval-ms}")
+    public void dispatchScheduled() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao processar a outbox de e-mails: {}", e.getMessage());
+        }
+    }
+
+    // Envia os e-mails vencidos, lote a lote; devolve quantos foram enviados
+    public int dispatch() {
+        int total = 0;
+        while (true) {
+            Instant now = Instant.now();
+            List<Long> ids = repository.findDueIds(now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return total;
+            }
+            String claimToken = UUID.randomUUID().toString();
+            if (repository.claim(ids, claimToken, now, now.plus(lease)) > 0) {
+                total += send(repository.findByClaimToken(claimToken), claimToken);
+            }
+            if (ids.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private int send(List<EmailOutbox> claimed, String claimToken) {
+        Instant now = Instant.now();
+        List<EmailOutbox> batch = new ArrayList<>(claimed.size());
+        for (EmailOutbox email : claimed) {
+            if (email.isExpired(now)) {
+                markDead(email, claimToken, now, "Expirado antes do envio");
+                expired.increment();
+            } else {
+                batch.add(email);
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox email = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(emailFrom);
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            messages[i] = message;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            batchFailure = failures.isEmpty() ? e : null;
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+
+        List<Long> delivered = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Exception failure = batchFailure != null ? batchFailure : failures.get(messages[i]);
+            if (failure == null) {
+                delivered.add(batch.get(i).getId());
+            } else {
+                failed(batch.get(i), claimToken, failure);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            repository.deleteSent(delivered, claimToken);
+            sent.increment(delivered.size());
+        }
+        return delivered.size();
+    }
+
+    private void failed(EmailOutbox email, String claimToken, Exception failure) {
+        String error = String.valueOf(failure.getMessage());
+        if (error.length() > 1000) {
+            error = error.substring(0, 1000);
+        }
+        // attempts já conta a tentativa atual (incrementado na reserva)
+        Instant now = Instant.now();
+        Instant nextAttemptAt = now.plus(backoff(email.getAttempts()));
+        if (email.getAttempts() >= maxAttempts) {
+            markDead(email, claimToken, now, error);
+            dead.increment();
+            logger.warn("E-mail {} para {} descartado após {} tentativas: {}", email.getId(), email.getRecipient(), email.getAttempts(), error);
+        } else if (email.isExpired(nextAttemptAt)) {
+            markDead(email, claimToken, now, error);
+            expired.increment();
+            logger.warn("E-mail {} para {} descartado: expira antes da próxima tentativa ({})", email.getId(), email.getRecipient(), error);
+        } else {
+            repository.retryLater(email.getId(), claimToken, nextAttemptAt, error);
+            retried.increment();
+        }
+    }
+
+    private void markDead(EmailOutbox email, String claimToken, Instant now, String error) {
+        if (repository.markDead(email.getId(), claimToken, now, error) > 0) {
+            deadCount.incrementAndGet();
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = backoffInitial.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+}
@@ -0,0 +1,12 @@
+package br.edu.ifmg.locadora.services.exceptions;
+
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException() {
+        super();
+    }
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +0,0 @@
-package br.edu.ifmg.locadora.services.exceptions;
-
-public class EmailException extends RuntimeException {
-    public EmailException(String message) {
-        super(message);
-    }
-}
\ No newline at end of file
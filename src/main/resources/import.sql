@@ -13,10 +13,12 @@ INSERT INTO user_role (user_id, role_id) VALUES (2, 1);
 INSERT INTO user_role (user_id, role_id) VALUES (3, 1);
 
 -- Inserir Veículos na nova tabela "tb_vehicle"
-INSERT INTO tb_vehicle (brand, model, license_plate, daily_rate, image_url, created_at, updated_at) VALUES ('Fiat', 'Mobi', 'ABC1D23', 95.50, 'https://example.com/mobi.jpg', NOW(), NOW());
-INSERT INTO tb_vehicle (brand, model, license_plate, daily_rate, image_url, created_at, updated_at) VALUES ('Chevrolet', 'Onix', 'DEF4E56', 105.00, 'https://example.com/onix.jpg', NOW(), NOW());
-INSERT INTO tb_vehicle (brand, model, license_plate, daily_rate, image_url, created_at, updated_at) VALUES ('Hyundai', 'HB20', 'GHI7F89', 110.75, 'https://example.com/hb20.jpg', NOW(), NOW());
-INSERT INTO tb_vehicle (brand, model, license_plate, daily_rate, image_url, created_at, updated_at) VALUES ('Renault', 'Kwid', 'JKL0G12', 92.00, 'https://example.com/kwid.jpg', NOW(), NOW());
+INSERT INTO tb_vehicle (id, brand, model, license_plate, daily_rate, image_url, created_at, updated_at) VALUES (1, 'Fiat', 'Mobi', 'ABC1D23', 95.50, 'https://example.com/mobi.jpg', NOW(), NOW());
+INSERT INTO tb_vehicle (id, brand, model, license_plate, daily_rate, image_url, created_at, updated_at) VALUES (2, 'Chevrolet', 'Onix', 'DEF4E56', 105.00, 'https://example.com/onix.jpg', NOW(), NOW());
+INSERT INTO tb_vehicle (id, brand, model, license_plate, daily_rate, image_url, created_at, updated_at) VALUES (3, 'Hyundai', 'HB20', 'GHI7F89', 110.75, 'https://example.com/hb20.jpg', NOW(), NOW());
+INSERT INTO tb_vehicle (id, brand, model, license_plate, daily_rate, image_url, created_at, updated_at) VALUES (4, 'Renault', 'Kwid', 'JKL0G12', 92.00, 'https://example.com/kwid.jpg', NOW(), NOW());
+-- Ids explícitos acima: a sequência (pooled-lo) continua a partir do próximo id livre
+ALTER SEQUENCE tb_vehicle_seq RESTART WITH 5;
 
 -- Inserir Aluguéis na nova tabela "tb_rental"
 INSERT INTO tb_rental (user_id, vehicle_id, rental_date, return_date) VALUES (1, 2, '2024-08-10T14:00:00Z', '2024-08-15T12:00:00Z');
@@ -0,0 +1,6 @@
+-- Executado após o DDL do Hibernate quando spring.sql.init.platform=postgresql.
+-- Impede aluguéis sobrepostos do mesmo veículo, mesmo com várias instâncias da aplicação.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+ALTER TABLE tb_rental DROP CONSTRAINT IF EXISTS tb_rental_no_overlap;
+ALTER TABLE tb_rental ADD CONSTRAINT tb_rental_no_overlap
+    EXCLUDE USING gist (vehicle_id WITH =, tsrange(rental_date, return_date) WITH &&);
@@ -0,0 +1,99 @@
+package br.edu.ifmg.locadora.benchmarks;
+
+import br.edu.ifmg.locadora.dtos.VehicleDTO;
+import br.edu.ifmg.locadora.projections.VehicleSummaryProjection;
+import br.edu.ifmg.locadora.resources.VehicleResource;
+import br.edu.ifmg.locadora.resources.links.LinkFactory;
+import br.edu.ifmg.locadora.resources.links.LinkTemplate;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+// Custo de montar os links de uma página de 1000 veículos (os mesmos links de GET /vehicles):
+// linkTo(methodOn(...)) por item contra os templates do LinkFactory. Cada invocação simula uma requisição nova.
+// Não roda no build; para executar: mvn test -Dtest=LinkBuildingBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkBuildingBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private static final LinkTemplate ALL_VEHICLES = LinkFactory.forMethod(VehicleResource.class, "findAll");
+    private static final LinkTemplate VEHICLE_BY_ID = LinkFactory.forMethod(VehicleResource.class, "findById");
+
+    private List<VehicleSummaryProjection> rows;
+
+    @Setup(Level.Trial)
+    public void createRows() {
+        rows = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            rows.add(new VehicleSummaryProjection(id, "Fiat", "Mobi", "BM" + id, 95.5, "https://example.com/mobi.jpg"));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/vehicles")));
+    }
+
+    @TearDown(Level.Invocation)
+    public void endRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<VehicleDTO> methodOnProxies() {
+        List<VehicleDTO> page = new ArrayList<>(rows.size());
+        for (VehicleSummaryProjection vehicle : rows) {
+            page.add(new VehicleDTO(vehicle)
+                    .add(linkTo(methodOn(VehicleResource.class).findAll(null, null)).withSelfRel())
+                    .add(linkTo(methodOn(VehicleResource.class).findById(vehicle.id(), null)).withRel("Get a vehicle")));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<VehicleDTO> linkTemplates() {
+        List<VehicleDTO> page = new ArrayList<>(rows.size());
+        Link self = ALL_VEHICLES.withSelfRel();
+        for (VehicleSummaryProjection vehicle : rows) {
+            page.add(new VehicleDTO(vehicle)
+                    .add(self)
+                    .add(VEHICLE_BY_ID.withRel("Get a vehicle", vehicle.id())));
+        }
+        return page;
+    }
+
+    @Test
+    public void run() throws RunnerException {
+        new Runner(new OptionsBuilder().include(LinkBuildingBenchmark.class.getName()).build()).run();
+    }
+}
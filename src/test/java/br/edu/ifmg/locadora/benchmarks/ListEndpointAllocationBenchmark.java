@@ -0,0 +1,152 @@
+package br.edu.ifmg.locadora.benchmarks;
+
+import br.edu.ifmg.locadora.dtos.RentalDTO;
+import br.edu.ifmg.locadora.dtos.RoleDTO;
+import br.edu.ifmg.locadora.dtos.UserDTO;
+import br.edu.ifmg.locadora.dtos.VehicleDTO;
+import br.edu.ifmg.locadora.projections.RentalSummaryProjection;
+import br.edu.ifmg.locadora.projections.UserSummaryProjection;
+import br.edu.ifmg.locadora.repositories.RentalRepository;
+import br.edu.ifmg.locadora.repositories.UserRepository;
+import br.edu.ifmg.locadora.repositories.VehicleRepository;
+import br.edu.ifmg.locadora.services.catalog.VehicleCatalogVersion;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// Compara a alocação de heap por requisição das listagens: entidades gerenciadas + DTO (antes)
+// contra projeções por construtor + DTO (depois). Não roda no build (o nome não casa com o padrão
+// do surefire); para executar: mvn test -Dtest=ListEndpointAllocationBenchmark
+@SpringBootTest
+public class ListEndpointAllocationBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListEndpointAllocationBenchmark.class);
+
+    private static final int ROWS = 2000;
+    private static final int PAGE_SIZE = 200;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private VehicleCatalogVersion vehicleCatalogVersion;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    public void seed() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<Object[]> vehicles = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            vehicles.add(new Object[]{"Fiat", "Mobi", String.format("BM%05d", i), 90.0 + i % 50, "https://example.com/mobi.jpg"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tb_vehicle (id, brand, model, license_plate, daily_rate, image_url, created_at, updated_at) " +
+                "VALUES (NEXT VALUE FOR tb_vehicle_seq, ?, ?, ?, ?, ?, NOW(), NOW())", vehicles);
+
+        List<Long> vehicleIds = jdbcTemplate.queryForList("SELECT id FROM tb_vehicle WHERE license_plate LIKE 'BM%'", Long.class);
+        List<Object[]> rentals = new ArrayList<>();
+        Instant base = Instant.parse("2040-01-01T10:00:00Z");
+        for (int i = 0; i < vehicleIds.size(); i++) {
+            Instant start = base.plus(i % 300, ChronoUnit.DAYS);
+            rentals.add(new Object[]{i % 2 == 0 ? 1L : 3L, vehicleIds.get(i),
+                    Timestamp.from(start), Timestamp.from(start.plus(3, ChronoUnit.DAYS))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tb_rental (user_id, vehicle_id, rental_date, return_date) VALUES (?, ?, ?, ?)", rentals);
+    }
+
+    // Remove o que seed() inseriu por SQL, inclusive do cache de segundo nível, para não afetar os outros testes
+    @AfterEach
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM tb_rental WHERE vehicle_id IN (SELECT id FROM tb_vehicle WHERE license_plate LIKE 'BM%')");
+        jdbcTemplate.update("DELETE FROM tb_vehicle WHERE license_plate LIKE 'BM%'");
+        entityManagerFactory.getCache().evictAll();
+        vehicleCatalogVersion.changed();
+    }
+
+    @Test
+    public void compareAllocationPerRequest() {
+        Pageable page = PageRequest.of(0, PAGE_SIZE);
+
+        report("/rentals",
+                () -> rentalRepository.findAll(page).map(RentalDTO::new),
+                () -> {
+                    Page<RentalSummaryProjection> rows = rentalRepository.findAllSummaries(page);
+                    Map<Long, Set<RoleDTO>> roles = RoleDTO.groupByUser(userRepository.findRolesByUserIds(
+                            rows.getContent().stream().map(RentalSummaryProjection::userId).distinct().toList()));
+                    return rows.map(r -> new RentalDTO(r, roles.getOrDefault(r.userId(), Set.of())));
+                });
+
+        report("/users",
+                () -> userRepository.findAll(page).map(UserDTO::new),
+                () -> {
+                    Page<UserSummaryProjection> rows = userRepository.findAllSummaries(page);
+                    Map<Long, Set<RoleDTO>> roles = RoleDTO.groupByUser(userRepository.findRolesByUserIds(
+                            rows.getContent().stream().map(UserSummaryProjection::id).toList()));
+                    return rows.map(u -> new UserDTO(u, roles.getOrDefault(u.id(), Set.of())));
+                });
+
+        report("/vehicles",
+                () -> vehicleRepository.findAll(page).map(VehicleDTO::new),
+                () -> vehicleRepository.findAllSummaries(page).map(VehicleDTO::new));
+    }
+
+    private void report(String endpoint, Supplier<Page<?>> entities, Supplier<Page<?>> projections) {
+        long before = allocatedPerCall(entities);
+        long after = allocatedPerCall(projections);
+        logger.info("{} entidades={} bytes/req projeções={} bytes/req ({}%)",
+                endpoint, before, after, Math.round(100.0 * after / before));
+    }
+
+    private long allocatedPerCall(Supplier<Page<?>> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            readOnly.execute(status -> call.get());
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            readOnly.execute(status -> call.get());
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - start) / ITERATIONS;
+    }
+}
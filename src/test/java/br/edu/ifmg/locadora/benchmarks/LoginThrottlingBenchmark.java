@@ -0,0 +1,148 @@
+package br.edu.ifmg.locadora.benchmarks;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Latência de logins legítimos antes e durante um ataque de força bruta com limite por IP/username.
+// Não roda no build (o nome não casa com o padrão do surefire); para executar: mvn test -Dtest=LoginThrottlingBenchmark
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LoginThrottlingBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottlingBenchmark.class);
+
+    private static final int LOGINS = 30;
+    private static final int ATTACKERS = 4;
+    // Os atacantes rodam na mesma JVM: sem pausa disputariam a CPU com o próprio login medido
+    private static final long ATTACK_PAUSE_MS = 20;
+    // p50 do login legítimo durante o ataque, no máximo este múltiplo do p50 sem ataque
+    private static final double MAX_P50_RATIO = 1.5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private int login(String ip, String username, String password) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/oauth2/token")
+                        .with(SecurityMockMvcRequestPostProcessors.httpBasic("myclientid", "myclientsecret"))
+                        .with(request -> {
+                            request.setRemoteAddr(ip);
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("grant_type", "password")
+                        .param("username", username)
+                        .param("password", password))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private long[] legitimateLogins() throws Exception {
+        long[] latencies = new long[LOGINS];
+        for (int i = 0; i < LOGINS; i++) {
+            long start = System.nanoTime();
+            Assertions.assertEquals(200, login("192.168.0.10", "lucas", "123456"));
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long p50(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+
+    private static String describe(long[] sorted) {
+        return String.format("p50=%.1fms p95=%.1fms max=%.1fms",
+                p50(sorted) / 1e6, sorted[(int) (sorted.length * 0.95)] / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+
+    @Test
+    public void legitimateLoginLatencyDuringAttack() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            login("192.168.0.10", "lucas", "123456");
+        }
+        long[] baseline = legitimateLogins();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong attempts = new AtomicLong();
+        AtomicLong throttled = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(ATTACKERS);
+        List<Runnable> attackers = new ArrayList<>();
+        for (int a = 0; a < ATTACKERS; a++) {
+            String ip = "10.0.0." + a;
+            attackers.add(() -> {
+                long n = 0;
+                while (running.get()) {
+                    try {
+                        int status = login(ip, "user" + (n++ % 20), "senha" + n);
+                        attempts.incrementAndGet();
+                        if (status == 429) {
+                            throttled.incrementAndGet();
+                        }
+                        Thread.sleep(ATTACK_PAUSE_MS);
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        }
+        attackers.forEach(executor::submit);
+
+        long[] underAttack;
+        long hashesDuringAttack;
+        long attemptsDuringMeasurement;
+        try {
+            while (throttled.get() < 500 || meterRegistry.get("password.hash.queue").gauge().value() > 0
+                    || meterRegistry.get("password.hash.active").gauge().value() > 0) {
+                Thread.sleep(100);
+            }
+            long hashesBefore = meterRegistry.get("password.hash").tag("operation", "matches").timer().count();
+            long attemptsBefore = attempts.get();
+            underAttack = legitimateLogins();
+            hashesDuringAttack = meterRegistry.get("password.hash").tag("operation", "matches").timer().count() - hashesBefore;
+            attemptsDuringMeasurement = attempts.get() - attemptsBefore;
+        } finally {
+            running.set(false);
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        logger.info("Login legítimo sem ataque: {}", describe(baseline));
+        logger.info("Login legítimo com ataque: {}", describe(underAttack));
+        logger.info("Tentativas do ataque: {}, recusadas com 429: {} (por IP: {}, por username: {})",
+                attempts.get(), throttled.get(),
+                meterRegistry.get("login.ratelimit.rejected").tag("key", "ip").counter().count(),
+                meterRegistry.get("login.ratelimit.rejected").tag("key", "username").counter().count());
+        logger.info("Durante a medição: {} tentativas do ataque, {} BCrypt ({} dos logins legítimos: cliente + usuário)",
+                attemptsDuringMeasurement, hashesDuringAttack, 2L * LOGINS);
+
+        // Nenhuma tentativa do ataque chega ao BCrypt durante a medição e a latência legítima fica perto da base
+        Assertions.assertEquals(2L * LOGINS, hashesDuringAttack);
+        Assertions.assertTrue(p50(underAttack) <= MAX_P50_RATIO * p50(baseline),
+                "p50 com ataque " + describe(underAttack) + " contra " + describe(baseline));
+        Assertions.assertTrue(throttled.get() > attempts.get() / 2);
+    }
+}
@@ -0,0 +1,83 @@
+package br.edu.ifmg.locadora.config;
+
+import br.edu.ifmg.locadora.services.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BoundedPasswordEncoderTest {
+
+    // Codificador que só termina quando o teste liberar
+    private static class BlockingEncoder implements PasswordEncoder {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "{hash}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    // Thread e fila ocupadas: a próxima chamada é recusada na hora, sem esperar
+    @Test
+    public void testRejectsWhenQueueIsFull() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BlockingEncoder delegate = new BlockingEncoder();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(10), registry)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            Assertions.assertTrue(delegate.started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+            while (registry.get("password.hash.queue").gauge().value() < 1) {
+                Thread.sleep(5);
+            }
+
+            long start = System.nanoTime();
+            Assertions.assertThrows(ServiceUnavailableException.class, () -> encoder.encode("c"));
+            Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+            Assertions.assertEquals(1.0, registry.get("password.hash.rejected").counter().count());
+
+            delegate.release.countDown();
+            Assertions.assertEquals("{hash}a", running.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals("{hash}b", queued.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(2, registry.get("password.hash").tag("operation", "encode").timer().count());
+        }
+    }
+
+    // Espera na fila acima do limite: 503 e a tarefa sai da fila
+    @Test
+    public void testRejectsAfterMaxWait() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BlockingEncoder delegate = new BlockingEncoder();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 4, Duration.ofMillis(100), registry)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            Assertions.assertTrue(delegate.started.await(5, TimeUnit.SECONDS));
+
+            Assertions.assertThrows(ServiceUnavailableException.class, () -> encoder.matches("b", "{hash}b"));
+            Assertions.assertEquals(0.0, registry.get("password.hash.queue").gauge().value());
+
+            // Quem ocupou a thread também desiste depois de maxWait, mesmo com o hash ainda em andamento
+            CompletionException timedOut = Assertions.assertThrows(CompletionException.class, running::join);
+            Assertions.assertInstanceOf(ServiceUnavailableException.class, timedOut.getCause());
+            delegate.release.countDown();
+        }
+    }
+}
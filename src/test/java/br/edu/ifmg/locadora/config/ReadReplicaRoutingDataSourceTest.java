@@ -0,0 +1,118 @@
+package br.edu.ifmg.locadora.config;
+
+import br.edu.ifmg.locadora.services.VehicleService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Dois bancos H2 independentes fazem o papel de primário e réplica; cada um identifica a si mesmo na tabela node
+public class ReadReplicaRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReadReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    public void setUp() {
+        primary = node("rr-primary");
+        replica = node("rr-replica");
+        routing = new ReadReplicaRoutingDataSource(primary, Map.of("replica-1", replica),
+                "SELECT seconds FROM lag", Duration.ofSeconds(5), new SimpleMeterRegistry());
+        routing.checkReplicas();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        routing.close();
+        primary.close();
+    }
+
+    @Test
+    public void testReadOnlyTransactionsGoToReplica() {
+        Assertions.assertEquals("rr-replica", readOnly.execute(status -> currentNode()));
+        Assertions.assertEquals("rr-primary", readWrite.execute(status -> currentNode()));
+        Assertions.assertEquals("rr-primary", currentNode());
+    }
+
+    @Test
+    public void testFallsBackToPrimaryWhenReplicaIsDown() {
+        replica.close();
+
+        Assertions.assertEquals("rr-primary", readOnly.execute(status -> currentNode()));
+        Assertions.assertTrue(routing.availableReplicas().isEmpty());
+    }
+
+    @Test
+    public void testFallsBackToPrimaryWhileReplicaLags() {
+        setReplicaLag(30);
+        routing.checkReplicas();
+        Assertions.assertEquals("rr-primary", readOnly.execute(status -> currentNode()));
+
+        setReplicaLag(0);
+        routing.checkReplicas();
+        Assertions.assertEquals("rr-replica", readOnly.execute(status -> currentNode()));
+    }
+
+    // Leituras do catálogo que geram ETag: a transação declarada no VehicleService vai para o primário
+    @Test
+    public void testCatalogEtagReadsGoToPrimary() throws Exception {
+        AnnotationTransactionAttributeSource attributes = new AnnotationTransactionAttributeSource();
+        for (Method method : List.of(
+                VehicleService.class.getMethod("findAll", Pageable.class),
+                VehicleService.class.getMethod("findAllAfter", String.class, int.class),
+                VehicleService.class.getMethod("findById", Long.class))) {
+            TransactionTemplate declared = new TransactionTemplate(readWrite.getTransactionManager(),
+                    attributes.getTransactionAttribute(method, VehicleService.class));
+            Assertions.assertEquals("rr-primary", declared.execute(status -> currentNode()), method.getName());
+        }
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private void setReplicaLag(double seconds) {
+        new JdbcTemplate(replica).update("UPDATE lag SET seconds = ?", seconds);
+    }
+
+    private static HikariDataSource node(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setConnectionTimeout(2000);
+        dataSource.setInitializationFailTimeout(-1);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP TABLE IF EXISTS node");
+        jdbc.execute("DROP TABLE IF EXISTS lag");
+        jdbc.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbc.execute("CREATE TABLE lag (seconds DOUBLE)");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        jdbc.update("INSERT INTO lag VALUES (0)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,136 @@
+package br.edu.ifmg.locadora.config.authorization;
+
+import br.edu.ifmg.locadora.config.customgrant.CustomPasswordAuthenticationToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+public class BoundedOAuth2AuthorizationServiceTest {
+
+    // Relógio controlado pelo teste
+    private static class MutableClock extends Clock {
+
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private final RegisteredClient registeredClient = RegisteredClient.withId("client")
+            .clientId("client")
+            .authorizationGrantType(CustomPasswordAuthenticationToken.PASSWORD)
+            .build();
+
+    private MutableClock clock;
+    private SimpleMeterRegistry registry;
+    private BoundedOAuth2AuthorizationService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        registry = new SimpleMeterRegistry();
+        service = new BoundedOAuth2AuthorizationService(3, Duration.ofMinutes(10), clock, registry);
+    }
+
+    private OAuth2Authorization authorization(String id, Duration accessTtl) {
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                "access-" + id, clock.now, clock.now.plus(accessTtl));
+        return OAuth2Authorization.withRegisteredClient(registeredClient)
+                .id(id)
+                .principalName("user-" + id)
+                .authorizationGrantType(CustomPasswordAuthenticationToken.PASSWORD)
+                .accessToken(accessToken)
+                .build();
+    }
+
+    @Test
+    public void testFindByTokenChecksTokenType() {
+        OAuth2RefreshToken refreshToken = new OAuth2RefreshToken("refresh-a", clock.now, clock.now.plus(Duration.ofHours(1)));
+        OAuth2Authorization authorization = OAuth2Authorization.from(authorization("a", Duration.ofMinutes(5)))
+                .refreshToken(refreshToken)
+                .build();
+        service.save(authorization);
+
+        Assertions.assertSame(authorization, service.findById("a"));
+        Assertions.assertSame(authorization, service.findByToken("access-a", OAuth2TokenType.ACCESS_TOKEN));
+        Assertions.assertSame(authorization, service.findByToken("access-a", null));
+        Assertions.assertSame(authorization, service.findByToken("refresh-a", OAuth2TokenType.REFRESH_TOKEN));
+        Assertions.assertNull(service.findByToken("access-a", OAuth2TokenType.REFRESH_TOKEN));
+        Assertions.assertNull(service.findByToken("unknown", null));
+
+        service.remove(authorization);
+        Assertions.assertNull(service.findById("a"));
+        Assertions.assertNull(service.findByToken("access-a", null));
+        Assertions.assertEquals(0, service.size());
+    }
+
+    // Resalvar a autorização troca os tokens indexados
+    @Test
+    public void testSaveReplacesPreviousTokens() {
+        service.save(authorization("a", Duration.ofMinutes(5)));
+        OAuth2AccessToken newToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                "access-a2", clock.now, clock.now.plus(Duration.ofMinutes(5)));
+        service.save(OAuth2Authorization.from(authorization("a", Duration.ofMinutes(5))).accessToken(newToken).build());
+
+        Assertions.assertEquals(1, service.size());
+        Assertions.assertNull(service.findByToken("access-a", null));
+        Assertions.assertNotNull(service.findByToken("access-a2", OAuth2TokenType.ACCESS_TOKEN));
+    }
+
+    // Acima do limite sai a que expira primeiro, não a mais antiga
+    @Test
+    public void testEvictsEarliestExpiringWhenFull() {
+        service.save(authorization("a", Duration.ofMinutes(30)));
+        service.save(authorization("b", Duration.ofMinutes(5)));
+        service.save(authorization("c", Duration.ofMinutes(20)));
+        service.save(authorization("d", Duration.ofMinutes(10)));
+
+        Assertions.assertEquals(3, service.size());
+        Assertions.assertNull(service.findById("b"));
+        Assertions.assertNull(service.findByToken("access-b", null));
+        Assertions.assertNotNull(service.findById("a"));
+        Assertions.assertNotNull(service.findById("c"));
+        Assertions.assertNotNull(service.findById("d"));
+        Assertions.assertEquals(1.0, registry.get("oauth2.authorizations.evicted").tag("reason", "capacity").counter().count());
+    }
+
+    @Test
+    public void testExpiredAuthorizationsAreNotReturnedAndAreRemoved() {
+        service.save(authorization("a", Duration.ofMinutes(5)));
+        service.save(authorization("b", Duration.ofMinutes(15)));
+
+        clock.now = clock.now.plus(Duration.ofMinutes(6));
+        Assertions.assertNull(service.findById("a"));
+        Assertions.assertNull(service.findByToken("access-a", null));
+        Assertions.assertNotNull(service.findById("b"));
+
+        service.removeExpired();
+        Assertions.assertEquals(1, service.size());
+        Assertions.assertEquals(1.0, registry.get("oauth2.authorizations.evicted").tag("reason", "expired").counter().count());
+        Assertions.assertEquals(1.0, registry.get("oauth2.authorizations.size").gauge().value());
+    }
+}
@@ -0,0 +1,47 @@
+package br.edu.ifmg.locadora.config.authorization;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Banco H2 próprio com o esquema do Spring Authorization Server (não usa o banco compartilhado dos testes)
+public class JdbcAuthorizationPurgerTest {
+
+    private static final String INSERT_SQL = "INSERT INTO oauth2_authorization (id, registered_client_id, principal_name, " +
+            "authorization_grant_type, access_token_expires_at, refresh_token_expires_at) VALUES (?, 'client', 'user', 'password', ?, ?)";
+
+    @Test
+    public void testPurgeRemovesOnlyFullyExpiredAuthorizations() {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("org/springframework/security/oauth2/server/authorization/oauth2-authorization-schema.sql")
+                .build();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            Instant now = Instant.parse("2025-01-01T12:00:00Z");
+            Timestamp past = Timestamp.from(now.minus(Duration.ofMinutes(1)));
+            Timestamp future = Timestamp.from(now.plus(Duration.ofMinutes(1)));
+
+            jdbcTemplate.update(INSERT_SQL, "expired", past, null);
+            jdbcTemplate.update(INSERT_SQL, "refresh-expired", past, past);
+            jdbcTemplate.update(INSERT_SQL, "refresh-valid", past, future);
+            jdbcTemplate.update(INSERT_SQL, "access-valid", future, null);
+            jdbcTemplate.update(INSERT_SQL, "no-tokens", null, null);
+
+            Assertions.assertEquals(2, new JdbcAuthorizationPurger(jdbcTemplate).purge(now));
+            List<String> remaining = jdbcTemplate.queryForList("SELECT id FROM oauth2_authorization ORDER BY id", String.class);
+            Assertions.assertEquals(List.of("access-valid", "no-tokens", "refresh-valid"), remaining);
+        } finally {
+            database.shutdown();
+        }
+    }
+}
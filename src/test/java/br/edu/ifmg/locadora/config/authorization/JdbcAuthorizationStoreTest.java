@@ -0,0 +1,135 @@
+package br.edu.ifmg.locadora.config.authorization;
+
+import br.edu.ifmg.locadora.config.AuthorizationServerConfig;
+import br.edu.ifmg.locadora.config.customgrant.CustomPasswordAuthenticationProvider;
+import br.edu.ifmg.locadora.config.customgrant.CustomPasswordAuthenticationToken;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2AccessTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
+import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.context.AuthorizationServerContext;
+import org.springframework.security.oauth2.server.authorization.context.AuthorizationServerContextHolder;
+import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
+import org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat;
+import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
+import org.springframework.security.oauth2.server.authorization.token.DelegatingOAuth2TokenGenerator;
+import org.springframework.security.oauth2.server.authorization.token.JwtGenerator;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2RefreshTokenGenerator;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Principal;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Autorização do grant password gravada pelo JdbcOAuth2AuthorizationService e lida de volta (refresh e revogação
+// buscam pelo token). Banco H2 próprio com o esquema do Spring Authorization Server.
+public class JdbcAuthorizationStoreTest {
+
+    @Test
+    public void testPasswordGrantAuthorizationRoundTrip() throws Exception {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("org/springframework/security/oauth2/server/authorization/oauth2-authorization-schema.sql")
+                .build();
+        try {
+            RegisteredClient registeredClient = RegisteredClient.withId("client")
+                    .clientId("client")
+                    .clientSecret("secret")
+                    .scope("read")
+                    .authorizationGrantType(CustomPasswordAuthenticationToken.PASSWORD)
+                    .authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
+                    .tokenSettings(TokenSettings.builder()
+                            .accessTokenFormat(OAuth2TokenFormat.SELF_CONTAINED)
+                            .accessTokenTimeToLive(Duration.ofMinutes(5))
+                            .refreshTokenTimeToLive(Duration.ofDays(1))
+                            .build())
+                    .build();
+            JdbcOAuth2AuthorizationService authorizationService = new JdbcOAuth2AuthorizationService(
+                    new JdbcTemplate(database), new InMemoryRegisteredClientRepository(registeredClient));
+
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair keyPair = generator.generateKeyPair();
+            JWKSet jwkSet = new JWKSet(new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).privateKey(keyPair.getPrivate()).keyID("test").build());
+            JwtGenerator jwtGenerator = new JwtGenerator(new NimbusJwtEncoder((selector, context) -> selector.select(jwkSet)));
+            jwtGenerator.setJwtCustomizer(new AuthorizationServerConfig().tokenCustomizer());
+
+            PasswordEncoder plainEncoder = new PasswordEncoder() {
+                @Override
+                public String encode(CharSequence rawPassword) {
+                    return rawPassword.toString();
+                }
+
+                @Override
+                public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                    return rawPassword.toString().equals(encodedPassword);
+                }
+            };
+
+            CustomPasswordAuthenticationProvider provider = new CustomPasswordAuthenticationProvider(authorizationService,
+                    new DelegatingOAuth2TokenGenerator(jwtGenerator, new OAuth2RefreshTokenGenerator()),
+                    username -> User.withUsername(username).password("pw").authorities("ROLE_CLIENT", "read").build(),
+                    plainEncoder);
+
+            AuthorizationServerSettings settings = AuthorizationServerSettings.builder().build();
+            AuthorizationServerContextHolder.setContext(new AuthorizationServerContext() {
+                @Override
+                public String getIssuer() {
+                    return "http://localhost";
+                }
+
+                @Override
+                public AuthorizationServerSettings getAuthorizationServerSettings() {
+                    return settings;
+                }
+            });
+            OAuth2AccessTokenAuthenticationToken result;
+            try {
+                OAuth2ClientAuthenticationToken clientPrincipal = new OAuth2ClientAuthenticationToken(
+                        registeredClient, ClientAuthenticationMethod.CLIENT_SECRET_BASIC, "secret");
+                result = (OAuth2AccessTokenAuthenticationToken) provider.authenticate(new CustomPasswordAuthenticationToken(
+                        clientPrincipal, null, Map.of("username", "ana", "password", "pw")));
+            } finally {
+                AuthorizationServerContextHolder.resetContext();
+            }
+
+            OAuth2Authorization byRefresh = authorizationService.findByToken(result.getRefreshToken().getTokenValue(), OAuth2TokenType.REFRESH_TOKEN);
+            Assertions.assertNotNull(byRefresh);
+            Assertions.assertEquals("ana", byRefresh.getPrincipalName());
+            Authentication principal = byRefresh.getAttribute(Principal.class.getName());
+            Assertions.assertEquals("ana", principal.getName());
+            Assertions.assertEquals(List.of("ROLE_CLIENT", "read"), principal.getAuthorities().stream().map(a -> a.getAuthority()).sorted().toList());
+            Assertions.assertNotNull(byRefresh.getAttribute(CustomPasswordAuthenticationProvider.PASSWORD_FINGERPRINT_ATTRIBUTE));
+
+            OAuth2Authorization byAccess = authorizationService.findByToken(result.getAccessToken().getTokenValue(), OAuth2TokenType.ACCESS_TOKEN);
+            Assertions.assertNotNull(byAccess);
+            Assertions.assertEquals(byRefresh.getId(), byAccess.getId());
+
+            authorizationService.remove(byAccess);
+            Assertions.assertNull(authorizationService.findByToken(result.getRefreshToken().getTokenValue(), OAuth2TokenType.REFRESH_TOKEN));
+        } finally {
+            database.shutdown();
+        }
+    }
+}
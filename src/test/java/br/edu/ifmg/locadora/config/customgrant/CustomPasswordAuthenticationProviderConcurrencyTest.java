@@ -0,0 +1,157 @@
+package br.edu.ifmg.locadora.config.customgrant;
+
+import br.edu.ifmg.locadora.config.AuthorizationServerConfig;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2AccessTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.context.AuthorizationServerContext;
+import org.springframework.security.oauth2.server.authorization.context.AuthorizationServerContextHolder;
+import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
+import org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat;
+import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
+import org.springframework.security.oauth2.server.authorization.token.JwtGenerator;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Emissões de token concorrentes na mesma instância do provider: cada token deve sair com o usuário
+// e as autoridades da própria requisição. O hash de senha é trivial aqui para caber milhares de emissões no teste.
+public class CustomPasswordAuthenticationProviderConcurrencyTest {
+
+    private static final int USERS = 50;
+    private static final int THREADS = 16;
+    private static final int GRANTS = 2000;
+
+    private static final String[][] AUTHORITIES = {
+            {"ROLE_CLIENT"}, {"ROLE_ADMIN"}, {"ROLE_ADMIN", "ROLE_CLIENT"}, {"ROLE_CLIENT", "read"}
+    };
+
+    @Test
+    public void testConcurrentGrantsKeepTheirOwnClaims() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        RSAKey rsaKey = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).privateKey(keyPair.getPrivate()).keyID("test").build();
+        JWKSet jwkSet = new JWKSet(rsaKey);
+        JwtGenerator jwtGenerator = new JwtGenerator(new NimbusJwtEncoder((selector, context) -> selector.select(jwkSet)));
+        jwtGenerator.setJwtCustomizer(new AuthorizationServerConfig().tokenCustomizer());
+        JwtDecoder jwtDecoder = NimbusJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build();
+
+        Map<String, UserDetails> users = new HashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            String username = "user" + i;
+            users.put(username, User.withUsername(username).password("pw-" + username).authorities(AUTHORITIES[i % AUTHORITIES.length]).build());
+        }
+        UserDetailsService userDetailsService = username -> {
+            UserDetails user = users.get(username);
+            if (user == null) {
+                throw new UsernameNotFoundException(username);
+            }
+            return User.withUserDetails(user).build();
+        };
+        PasswordEncoder plainEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+
+        CustomPasswordAuthenticationProvider provider = new CustomPasswordAuthenticationProvider(
+                new InMemoryOAuth2AuthorizationService(), jwtGenerator, userDetailsService, plainEncoder);
+
+        RegisteredClient registeredClient = RegisteredClient.withId("client")
+                .clientId("client")
+                .clientSecret("secret")
+                .scope("read")
+                .scope("write")
+                .authorizationGrantType(CustomPasswordAuthenticationToken.PASSWORD)
+                .tokenSettings(TokenSettings.builder()
+                        .accessTokenFormat(OAuth2TokenFormat.SELF_CONTAINED)
+                        .accessTokenTimeToLive(Duration.ofMinutes(5))
+                        .build())
+                .build();
+        AuthorizationServerSettings settings = AuthorizationServerSettings.builder().build();
+        AuthorizationServerContext serverContext = new AuthorizationServerContext() {
+            @Override
+            public String getIssuer() {
+                return "http://localhost";
+            }
+
+            @Override
+            public AuthorizationServerSettings getAuthorizationServerSettings() {
+                return settings;
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> failures = new ArrayList<>(GRANTS);
+        try {
+            for (int i = 0; i < GRANTS; i++) {
+                String username = "user" + (i % USERS);
+                failures.add(executor.submit(() -> {
+                    start.await();
+                    AuthorizationServerContextHolder.setContext(serverContext);
+                    try {
+                        OAuth2ClientAuthenticationToken clientPrincipal = new OAuth2ClientAuthenticationToken(
+                                registeredClient, ClientAuthenticationMethod.CLIENT_SECRET_BASIC, "secret");
+                        Map<String, Object> parameters = Map.of("username", username, "password", "pw-" + username);
+                        OAuth2AccessTokenAuthenticationToken result = (OAuth2AccessTokenAuthenticationToken) provider.authenticate(
+                                new CustomPasswordAuthenticationToken(clientPrincipal, null, parameters));
+
+                        Jwt jwt = jwtDecoder.decode(result.getAccessToken().getTokenValue());
+                        List<String> expectedAuthorities = users.get(username).getAuthorities().stream()
+                                .map(a -> a.getAuthority()).sorted().toList();
+                        List<String> authorities = jwt.getClaimAsStringList("authorities").stream().sorted().toList();
+                        if (!username.equals(jwt.getClaimAsString("username")) || !expectedAuthorities.equals(authorities)) {
+                            return username + " recebeu " + jwt.getClaims();
+                        }
+                        boolean expectsRead = expectedAuthorities.contains("read");
+                        if (result.getAccessToken().getScopes().contains("read") != expectsRead) {
+                            return username + " recebeu escopos " + result.getAccessToken().getScopes();
+                        }
+                        return null;
+                    } finally {
+                        AuthorizationServerContextHolder.resetContext();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<String> failure : failures) {
+                Assertions.assertNull(failure.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package br.edu.ifmg.locadora.config.jwk;
+
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+public class JwkKeyDirectoryTest {
+
+    private static final Duration DELAY = Duration.ofMinutes(10);
+
+    private static String sign(JwkKeyDirectory keys, String subject) {
+        JwtClaimsSet claims = JwtClaimsSet.builder().subject(subject).issuedAt(Instant.now()).build();
+        return new NimbusJwtEncoder(keys.signingKey())
+                .encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.RS256).build(), claims))
+                .getTokenValue();
+    }
+
+    private static JwtDecoder decoder(JwkKeyDirectory keys) {
+        return OAuth2AuthorizationServerConfiguration.jwtDecoder(keys.verificationKeys());
+    }
+
+    // Diretório vazio: gera a chave uma vez; outra instância (ou reinício) reaproveita e valida os tokens emitidos
+    @Test
+    public void testGeneratesOnceAndSharesKeysAcrossInstances(@TempDir Path directory) throws Exception {
+        JwkKeyDirectory first = new JwkKeyDirectory(directory, null, DELAY);
+        try (var files = Files.list(directory)) {
+            Assertions.assertEquals(List.of(first.signingKeyId() + ".pem"), files.map(f -> f.getFileName().toString()).toList());
+        }
+
+        JwkKeyDirectory second = new JwkKeyDirectory(directory, null, DELAY);
+        Assertions.assertEquals(first.signingKeyId(), second.signingKeyId());
+
+        String token = sign(first, "lucas");
+        Jwt jwt = decoder(second).decode(token);
+        Assertions.assertEquals("lucas", jwt.getSubject());
+        Assertions.assertEquals(first.signingKeyId(), jwt.getHeaders().get("kid"));
+    }
+
+    private static void age(Path file, Duration age) throws Exception {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+    }
+
+    // Nova chave no diretório: valida com ela no reload, mas só assina depois do prazo de ativação (todas as
+    // instâncias já a carregaram); continua validando os tokens da anterior
+    @Test
+    public void testRotationKeepsValidatingPreviousKey(@TempDir Path directory, @TempDir Path other) throws Exception {
+        JwkKeyDirectory keys = new JwkKeyDirectory(directory, null, DELAY);
+        String oldKid = keys.signingKeyId();
+        String oldToken = sign(keys, "joao");
+        age(directory.resolve(oldKid + ".pem"), Duration.ofDays(1));
+
+        JwkKeyDirectory generated = new JwkKeyDirectory(other, null, DELAY);
+        String newKid = "99991231T000000-rotated";
+        Path newFile = directory.resolve(newKid + ".pem");
+        Files.move(other.resolve(generated.signingKeyId() + ".pem"), newFile);
+        Files.setLastModifiedTime(newFile, FileTime.from(Instant.now()));
+
+        keys.reload();
+        Assertions.assertEquals(oldKid, keys.signingKeyId());
+        Assertions.assertTrue(keys.keyIds().contains(newKid));
+
+        age(newFile, DELAY.plusMinutes(1));
+        keys.reload();
+        Assertions.assertEquals(newKid, keys.signingKeyId());
+        Assertions.assertEquals("joao", decoder(keys).decode(oldToken).getSubject());
+        Assertions.assertEquals(newKid, decoder(keys).decode(sign(keys, "ana")).getHeaders().get("kid"));
+
+        // Chave fixada por configuração
+        Assertions.assertEquals(oldKid, new JwkKeyDirectory(directory, oldKid, DELAY).signingKeyId());
+    }
+
+    // Chave só pública valida, mas não assina; removida, seus tokens deixam de valer
+    @Test
+    public void testPublicOnlyKeyValidatesUntilRemoved(@TempDir Path directory) throws Exception {
+        Path issuerDirectory = Files.createDirectory(directory.resolve("issuer"));
+        Path verifierDirectory = Files.createDirectory(directory.resolve("verifier"));
+        JwkKeyDirectory issuer = new JwkKeyDirectory(issuerDirectory, null, DELAY);
+        String token = sign(issuer, "lucas");
+
+        byte[] publicKey = issuer.verificationKeys()
+                .get(new JWKSelector(new JWKMatcher.Builder().build()), null)
+                .get(0).toRSAKey().toPublicKey().getEncoded();
+        Path publicFile = verifierDirectory.resolve(issuer.signingKeyId() + ".pub.pem");
+        Files.writeString(publicFile, "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder().encodeToString(publicKey) + "\n-----END PUBLIC KEY-----\n", StandardCharsets.US_ASCII);
+
+        JwkKeyDirectory verifier = new JwkKeyDirectory(verifierDirectory, null, DELAY);
+        Assertions.assertNotEquals(issuer.signingKeyId(), verifier.signingKeyId());
+        Assertions.assertEquals(2, verifier.keyIds().size());
+        Assertions.assertEquals("lucas", decoder(verifier).decode(token).getSubject());
+
+        Files.delete(publicFile);
+        verifier.reload();
+        Assertions.assertThrows(JwtException.class, () -> decoder(verifier).decode(token));
+    }
+}
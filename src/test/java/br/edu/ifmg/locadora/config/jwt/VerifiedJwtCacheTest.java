@@ -0,0 +1,125 @@
+package br.edu.ifmg.locadora.config.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class VerifiedJwtCacheTest {
+
+    // Relógio controlado pelo teste
+    private static class MutableClock extends Clock {
+
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private MutableClock clock;
+    private SimpleMeterRegistry registry;
+    private VerifiedJwtCache cache;
+    private final AtomicInteger decodes = new AtomicInteger();
+    private final AtomicInteger conversions = new AtomicInteger();
+
+    // "bad" falha; os demais expiram em 10 minutos
+    private final JwtDecoder delegate = token -> {
+        decodes.incrementAndGet();
+        if (token.equals("bad")) {
+            throw new BadJwtException("assinatura inválida");
+        }
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject(token)
+                .claim("authorities", List.of("ROLE_CLIENT"))
+                .issuedAt(clock.now)
+                .expiresAt(clock.now.plus(Duration.ofMinutes(10)))
+                .build();
+    };
+
+    private final Converter<Jwt, Collection<GrantedAuthority>> authorities = jwt -> {
+        conversions.incrementAndGet();
+        return List.of(new SimpleGrantedAuthority("ROLE_CLIENT"));
+    };
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        registry = new SimpleMeterRegistry();
+        cache = new VerifiedJwtCache(2, Duration.ofHours(1), clock, registry);
+    }
+
+    @Test
+    public void testRepeatedTokenIsDecodedAndConvertedOnce() {
+        JwtDecoder decoder = cache.decoder(delegate);
+        Converter<Jwt, Collection<GrantedAuthority>> converter = cache.authoritiesConverter(authorities);
+
+        for (int i = 0; i < 5; i++) {
+            Jwt jwt = decoder.decode("token-a");
+            Assertions.assertEquals("token-a", jwt.getSubject());
+            Assertions.assertEquals("ROLE_CLIENT", converter.convert(jwt).iterator().next().getAuthority());
+        }
+        Assertions.assertEquals(1, decodes.get());
+        Assertions.assertEquals(1, conversions.get());
+        Assertions.assertEquals(4.0, registry.get("cache.gets").tag("cache", VerifiedJwtCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    public void testFailuresAreNotCached() {
+        JwtDecoder decoder = cache.decoder(delegate);
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        Assertions.assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        Assertions.assertEquals(2, decodes.get());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    // Após o exp o token volta ao decoder (que o recusaria)
+    @Test
+    public void testEntryExpiresWithToken() {
+        JwtDecoder decoder = cache.decoder(delegate);
+        decoder.decode("token-a");
+        clock.now = clock.now.plus(Duration.ofMinutes(9));
+        decoder.decode("token-a");
+        Assertions.assertEquals(1, decodes.get());
+
+        clock.now = clock.now.plus(Duration.ofMinutes(2));
+        decoder.decode("token-a");
+        Assertions.assertEquals(2, decodes.get());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        JwtDecoder decoder = cache.decoder(delegate);
+        for (int i = 0; i < 10; i++) {
+            decoder.decode("token-" + i);
+        }
+        Assertions.assertTrue(cache.size() <= 2);
+    }
+}
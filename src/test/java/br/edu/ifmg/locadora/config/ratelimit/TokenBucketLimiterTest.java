@@ -0,0 +1,83 @@
+package br.edu.ifmg.locadora.config.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucketLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    public void testBurstThenOnePerInterval() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, Duration.ofSeconds(10), 100, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, limiter.tryAcquire("joao"));
+        }
+        long wait = limiter.tryAcquire("joao");
+        Assertions.assertEquals(Duration.ofSeconds(10).toNanos(), wait);
+        Assertions.assertEquals(0, limiter.tryAcquire("ana"));
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        Assertions.assertEquals(0, limiter.tryAcquire("joao"));
+        Assertions.assertTrue(limiter.tryAcquire("joao") > 0);
+    }
+
+    // Tentativa devolvida (login bem-sucedido) não conta
+    @Test
+    public void testReleaseReturnsToken() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, Duration.ofSeconds(10), 100, now::get);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(0, limiter.tryAcquire("lucas"));
+            limiter.release("lucas");
+        }
+        Assertions.assertEquals(0, limiter.tryAcquire("lucas"));
+        Assertions.assertEquals(0, limiter.tryAcquire("lucas"));
+        Assertions.assertTrue(limiter.tryAcquire("lucas") > 0);
+    }
+
+    @Test
+    public void testKeysAreBounded() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, Duration.ofSeconds(10), 50, now::get);
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("10.0.0." + i);
+        }
+        Assertions.assertTrue(limiter.size() <= 50);
+    }
+
+    // Relógio parado e muitas threads na mesma chave: exatamente capacity tentativas passam
+    @Test
+    public void testConcurrentAcquireNeverExceedsCapacity() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(25, Duration.ofSeconds(10), 100, now::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 400; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return limiter.tryAcquire("joao") == 0;
+                }));
+            }
+            start.countDown();
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    accepted++;
+                }
+            }
+            Assertions.assertEquals(25, accepted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
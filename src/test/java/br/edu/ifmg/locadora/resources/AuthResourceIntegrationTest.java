@@ -1,11 +1,14 @@
 package br.edu.ifmg.locadora.resources;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
@@ -37,4 +40,71 @@ public class AuthResourceIntegrationTest {
                         .content(json))
                 .andExpect(MockMvcResultMatchers.status().isNotFound());
     }
-}
\ No newline at end of file
+
+    private ResultActions token(String... parameters) throws Exception {
+        var request = MockMvcRequestBuilders.post("/oauth2/token")
+                .with(SecurityMockMvcRequestPostProcessors.httpBasic("myclientid", "myclientsecret"))
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED);
+        for (int i = 0; i < parameters.length; i += 2) {
+            request.param(parameters[i], parameters[i + 1]);
+        }
+        return mockMvc.perform(request);
+    }
+
+    @Test
+    public void testRefreshTokenGrant() throws Exception {
+        //login com senha devolve também um refresh token
+        String login = token("grant_type", "password", "username", "ana", "password", "123456")
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.access_token").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.refresh_token").exists())
+                .andReturn().getResponse().getContentAsString();
+        String refreshToken = JsonPath.read(login, "$.refresh_token");
+
+        //renovação sem senha: novo access token e novo refresh token
+        String refreshed = token("grant_type", "refresh_token", "refresh_token", refreshToken)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.access_token").exists())
+                .andReturn().getResponse().getContentAsString();
+        String newRefreshToken = JsonPath.read(refreshed, "$.refresh_token");
+
+        //o refresh token usado deixa de valer
+        token("grant_type", "refresh_token", "refresh_token", refreshToken)
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("invalid_grant"));
+
+        //o access token renovado traz o usuário e os papéis atuais
+        String accessToken = JsonPath.read(refreshed, "$.access_token");
+        mockMvc.perform(MockMvcRequestBuilders.get("/rentals/user/3/total")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        //refresh token revogado não renova
+        mockMvc.perform(MockMvcRequestBuilders.post("/oauth2/revoke")
+                        .with(SecurityMockMvcRequestPostProcessors.httpBasic("myclientid", "myclientsecret"))
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("token", newRefreshToken)
+                        .param("token_type_hint", "refresh_token"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        token("grant_type", "refresh_token", "refresh_token", newRefreshToken)
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("invalid_grant"));
+    }
+
+    @Test
+    public void testLoginRateLimitedByUsername() throws Exception {
+        //5 tentativas erradas seguidas passam (e falham); a 6a é recusada antes de consultar o usuário
+        for (int i = 0; i < 5; i++) {
+            token("grant_type", "password", "username", "brute-force", "password", "errada" + i)
+                    .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        }
+        token("grant_type", "password", "username", "brute-force", "password", "errada")
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().exists("Retry-After"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").value("temporarily_unavailable"));
+
+        //outros usuários não são afetados
+        token("grant_type", "password", "username", "ana", "password", "123456")
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+}
@@ -1,11 +1,15 @@
 package br.edu.ifmg.locadora.resources;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
@@ -16,6 +20,9 @@ public class InvoiceResourceIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Test
     @WithMockUser(authorities = "ROLE_ADMIN")
     public void testGenerateInvoice() throws Exception {
@@ -24,4 +31,38 @@ public class InvoiceResourceIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.user.id").value(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    public void testStreamInvoiceMatchesInvoice() throws Exception {
+        //a fatura em streaming tem os mesmos aluguéis e o mesmo total da fatura normal
+        JsonNode invoice = objectMapper.readTree(mockMvc.perform(MockMvcRequestBuilders.get("/invoices/user/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        MvcResult started = mockMvc.perform(MockMvcRequestBuilders.get("/invoices/user/1/stream"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        JsonNode streamed = objectMapper.readTree(mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(started))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        Assertions.assertEquals(1, streamed.get("user").get("id").asLong());
+        Assertions.assertEquals(0, invoice.get("total").decimalValue().compareTo(streamed.get("total").decimalValue()));
+        Assertions.assertEquals(invoice.get("rentals").size(), streamed.get("rentals").size());
+        for (JsonNode line : streamed.get("rentals")) {
+            Assertions.assertNull(line.get("user"));
+            Assertions.assertNotNull(line.get("vehicle").get("licensePlate"));
+        }
+    }
+
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    public void testStreamInvoiceNotFound() throws Exception {
+        //usuário inexistente ou sem aluguéis: 404 antes de a resposta começar
+        mockMvc.perform(MockMvcRequestBuilders.get("/invoices/user/999/stream"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.get("/invoices/user/2/stream"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
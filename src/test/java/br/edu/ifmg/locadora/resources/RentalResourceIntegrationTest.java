@@ -1,5 +1,12 @@
 package br.edu.ifmg.locadora.resources;
 
+import br.edu.ifmg.locadora.config.SecondLevelCacheConfig;
+import br.edu.ifmg.locadora.repositories.RentalRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -17,6 +24,12 @@ public class RentalResourceIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
     //Simula a busca de todos os aluguéis por um administrador
 
     @Test
@@ -26,6 +39,60 @@ public class RentalResourceIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    // A listagem deve usar uma consulta para a página (com cliente e veículo), uma para os papéis dos clientes
+    // e, se a página vier cheia, a consulta de contagem - independente do número de aluguéis
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    public void testFindAllRentalsStatementCount() throws Exception {
+        int size = 500;
+        long expected = rentalRepository.count() < size ? 2 : 3;
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get("/rentals").param("size", String.valueOf(size)))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+            Assertions.assertEquals(expected, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    //Simula a listagem enxuta: só os campos pedidos, sem links e sem a consulta de papéis do usuário
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    public void testFindAllRentalsSparseFields() throws Exception {
+        int size = 500;
+        long expected = rentalRepository.count() < size ? 1 : 2;
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get("/rentals").param("size", String.valueOf(size))
+                            .param("fields", "id,rentalDate,vehicle.id").param("links", "none"))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").exists())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].rentalDate").exists())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].vehicle.id").exists())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].vehicle.brand").doesNotExist())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].user").doesNotExist())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].links").doesNotExist());
+            Assertions.assertEquals(expected, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    //Simula um valor inválido para links
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    public void testFindAllRentalsInvalidLinksParameter() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/rentals").param("links", "some"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     //Simula a busca de um aluguel especifico pelo seu ID por um administrador
     @Test
     @WithMockUser(authorities = "ROLE_ADMIN")
@@ -47,6 +114,48 @@ public class RentalResourceIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isCreated());
     }
 
+    // Simula duas reservas sobrepostas do mesmo veículo: a segunda deve ser recusada com 409
+    @Test
+    @WithMockUser(authorities = "ROLE_CLIENT")
+    public void testInsertOverlappingRentalReturnsConflict() throws Exception {
+        String first = "{\"rentalDate\": \"2030-03-10T14:00:00Z\", \"returnDate\": \"2030-03-15T12:00:00Z\", \"user\": {\"id\": 3}, \"vehicle\": {\"id\": 3}}";
+        String second = "{\"rentalDate\": \"2030-03-14T14:00:00Z\", \"returnDate\": \"2030-03-18T12:00:00Z\", \"user\": {\"id\": 1}, \"vehicle\": {\"id\": 3}}";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/rentals")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(first))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/rentals")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(second))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
+    // Com o veículo já no cache de segundo nível, a reserva não deve selecioná-lo no banco
+    @Test
+    @WithMockUser(authorities = {"ROLE_ADMIN", "ROLE_CLIENT"})
+    public void testInsertRentalReadsVehicleFromCache() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/vehicles/3"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        String json = "{\"rentalDate\": \"2030-07-01T10:00:00Z\", \"returnDate\": \"2030-07-05T10:00:00Z\", \"user\": {\"id\": 3}, \"vehicle\": {\"id\": 3}}";
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.post("/rentals")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json))
+                    .andExpect(MockMvcResultMatchers.status().isCreated());
+            CacheRegionStatistics vehicleRegion = statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.VEHICLE_REGION);
+            Assertions.assertEquals(0, vehicleRegion.getMissCount());
+            Assertions.assertTrue(vehicleRegion.getHitCount() > 0);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
     //Simula a atualização de um aluguel existente por um administrador
     @Test
     @WithMockUser(authorities = "ROLE_ADMIN")
@@ -1,15 +1,24 @@
 package br.edu.ifmg.locadora.resource;
 
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.util.List;
+
 @SpringBootTest
 @AutoConfigureMockMvc
 public class VehicleResourceIntegrationTest {
@@ -17,6 +26,9 @@ public class VehicleResourceIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     // Simula a busca de todos os veículos
     @Test
     public void testFindAllVehicles() throws Exception {
@@ -32,6 +44,69 @@ public class VehicleResourceIntegrationTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(1));
     }
 
+    // Simula a busca de um veículo sem os links HATEOAS
+    @Test
+    public void testFindVehicleByIdWithoutLinks() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/vehicles/1").param("links", "none"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.brand").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$._links").doesNotExist());
+    }
+
+    // Simula a revalidação da listagem: catálogo inalterado responde 304 sem nenhuma consulta ao banco
+    @Test
+    public void testFindAllVehiclesNotModified() throws Exception {
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/vehicles"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, Matchers.containsString("public")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotNull(etag);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get("/vehicles").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(MockMvcResultMatchers.status().isNotModified())
+                    .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, Matchers.containsString("max-age")));
+            Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    // Simula a revalidação de um veículo antes e depois de uma alteração
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    public void testFindVehicleByIdNotModifiedUntilUpdated() throws Exception {
+        String body = mockMvc.perform(MockMvcRequestBuilders.get("/vehicles/2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/vehicles/2"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotNull(etag);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            mockMvc.perform(MockMvcRequestBuilders.get("/vehicles/2").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(MockMvcResultMatchers.status().isNotModified());
+            Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        Thread.sleep(5);
+        mockMvc.perform(MockMvcRequestBuilders.put("/vehicles/2").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/vehicles/2").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.not(etag)));
+    }
+
     // Simula a inserção de um novo veículo por um administrador
     @Test
     @WithMockUser(authorities = "ROLE_ADMIN")
@@ -70,4 +145,86 @@ public class VehicleResourceIntegrationTest {
         mockMvc.perform(MockMvcRequestBuilders.get("/vehicles/available/2025-12-01/2025-12-10"))
                 .andExpect(MockMvcResultMatchers.status().isOk());
     }
-}
\ No newline at end of file
+
+    // Simula a contagem de veículos disponíveis em um determinado período
+    @Test
+    public void testCountAvailableVehicles() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/vehicles/available/2025-12-01/2025-12-10/count"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total_disponiveis").isNumber());
+    }
+
+    // Simula a navegação por cursor: ids crescentes, sem repetição, até a última página
+    @Test
+    public void testFindAllVehiclesByCursor() throws Exception {
+        String cursor = "";
+        long lastId = 0;
+        boolean hasNext = true;
+        while (hasNext) {
+            String body = mockMvc.perform(MockMvcRequestBuilders.get("/vehicles").param("after", cursor).param("size", "2"))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist())
+                    .andReturn().getResponse().getContentAsString();
+
+            List<Integer> ids = JsonPath.read(body, "$.content[*].id");
+            for (Integer id : ids) {
+                Assertions.assertTrue(id > lastId);
+                lastId = id;
+            }
+            hasNext = JsonPath.read(body, "$.hasNext");
+            if (hasNext) {
+                Assertions.assertEquals(2, ids.size());
+                cursor = JsonPath.read(body, "$.nextCursor");
+            }
+        }
+    }
+
+    // Simula um cursor inválido
+    @Test
+    public void testFindAllVehiclesByInvalidCursor() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/vehicles").param("after", "not-a-cursor"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    // Simula a importação em massa por CSV: linhas válidas gravadas, demais reportadas com o número da linha
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    public void testBulkImportVehiclesCsv() throws Exception {
+        String csv = "brand,model,licensePlate,dailyRate,imageUrl\n" +
+                "Fiat,Argo,BLK-CSV-1,120.0,https://example.com/argo.jpg\n" +
+                "\"Volkswagen, VW\",Polo,BLK-CSV-2,130.5,\n" +
+                "Hyundai,HB20,GHI7F89,110.0,\n" +
+                "Fiat,Argo,BLK-CSV-3,abc,\n" +
+                "Fiat,Argo,BLK-CSV-1,120.0,\n";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/vehicles/bulk")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejected").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[*].line").value(Matchers.containsInAnyOrder(4, 5, 6)));
+    }
+
+    // Simula a importação em massa por NDJSON com uma linha malformada
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    public void testBulkImportVehiclesNdjson() throws Exception {
+        String ndjson = "{\"brand\": \"Fiat\", \"model\": \"Pulse\", \"licensePlate\": \"BLK-NDJ-1\", \"dailyRate\": 140.0}\n" +
+                "\n" +
+                "{\"brand\": \"Fiat\", \"model\": \"Pulse\", \"licensePlate\": \"BLK-NDJ-2\", \"dailyRate\": 140.0}\n" +
+                "{\"brand\": \"Fiat\", \"model\": \n";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/vehicles/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.received").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line").value(4));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/vehicles").param("after", "").param("size", "1000"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[?(@.licensePlate == 'BLK-NDJ-2')]").exists());
+    }
+}
@@ -0,0 +1,75 @@
+package br.edu.ifmg.locadora.services;
+
+import br.edu.ifmg.locadora.dtos.NewPasswordDTO;
+import br.edu.ifmg.locadora.entities.PasswordRecover;
+import br.edu.ifmg.locadora.repositories.PasswordRecoverRepository;
+import br.edu.ifmg.locadora.services.exceptions.ResourceNotFound;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+@SpringBootTest
+public class PasswordRecoverTokenTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PasswordRecoverRepository passwordRecoverRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static String sha256(String token) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Token usado uma vez deixa de valer, assim como os demais pendentes do mesmo e-mail
+    @Test
+    public void testTokenIsSingleUse() throws Exception {
+        Instant expiration = Instant.now().plus(Duration.ofMinutes(10));
+        passwordRecoverRepository.save(new PasswordRecover(null, sha256("token-ana-1"), "ana@email.com", expiration));
+        PasswordRecover other = passwordRecoverRepository.save(new PasswordRecover(null, sha256("token-ana-2"), "ana@email.com", expiration));
+
+        authService.saveNewPassword(new NewPasswordDTO("123456", "token-ana-1"));
+
+        Assertions.assertThrows(ResourceNotFound.class, () -> authService.saveNewPassword(new NewPasswordDTO("123456", "token-ana-1")));
+        Assertions.assertFalse(passwordRecoverRepository.existsById(other.getId()));
+        Assertions.assertThrows(ResourceNotFound.class, () -> authService.saveNewPassword(new NewPasswordDTO("123456", "token-ana-2")));
+    }
+
+    @Test
+    public void testExpiredTokenIsRejected() throws Exception {
+        passwordRecoverRepository.save(new PasswordRecover(null, sha256("token-expirado"), "ana@email.com", Instant.now().minusSeconds(1)));
+        Assertions.assertThrows(ResourceNotFound.class, () -> authService.saveNewPassword(new NewPasswordDTO("123456", "token-expirado")));
+    }
+
+    // Limpeza em lotes (500 por transação): remove todos os expirados e mantém os válidos
+    @Test
+    public void testPurgeRemovesExpiredInChunks() throws Exception {
+        Timestamp past = Timestamp.from(Instant.now().minus(Duration.ofHours(1)));
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            rows.add(new Object[]{sha256("expirado-" + i), "joao@email.com", past});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO password_recover (token_hash, email, expiration) VALUES (?, ?, ?)", rows);
+        PasswordRecover valid = passwordRecoverRepository.save(
+                new PasswordRecover(null, sha256("valido"), "joao@email.com", Instant.now().plus(Duration.ofMinutes(10))));
+
+        Assertions.assertTrue(authService.purgeExpiredTokens() >= 1200);
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM password_recover WHERE expiration <= CURRENT_TIMESTAMP", Integer.class));
+        Assertions.assertTrue(passwordRecoverRepository.existsById(valid.getId()));
+    }
+}
@@ -0,0 +1,107 @@
+package br.edu.ifmg.locadora.services;
+
+import br.edu.ifmg.locadora.dtos.RentalDTO;
+import br.edu.ifmg.locadora.dtos.UserDTO;
+import br.edu.ifmg.locadora.dtos.VehicleDTO;
+import br.edu.ifmg.locadora.entities.Rental;
+import br.edu.ifmg.locadora.repositories.RentalRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Aluguéis do joao (id 2, sem aluguéis na carga inicial), removidos no fim para não afetar os outros testes
+@SpringBootTest
+public class RentalPriceSnapshotTest {
+
+    private static final long USER_ID = 2L;
+    private static final Instant BASE = Instant.parse("2033-03-01T10:00:00Z");
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private RentalPriceBackfill rentalPriceBackfill;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Valores gravados na reserva: a nova diária do veículo não muda total, maior e menor aluguel;
+    // linha sem valor (anterior às colunas) vale pela diária atual e é preenchida pelo backfill com ela
+    @Test
+    public void testBookedPriceSurvivesRateChangeAndBackfill() {
+        VehicleDTO vehicle = newVehicle(100.0);
+        List<Long> rentalIds = new ArrayList<>();
+        try {
+            long threeDays = book(vehicle.getId(), BASE, BASE.plus(Duration.ofDays(3)));
+            long fewHours = book(vehicle.getId(), BASE.plus(Duration.ofDays(10)), BASE.plus(Duration.ofDays(10)).plus(Duration.ofHours(5)));
+            long fiveDays = book(vehicle.getId(), BASE.plus(Duration.ofDays(20)), BASE.plus(Duration.ofDays(24)).plus(Duration.ofHours(1)));
+            rentalIds.addAll(List.of(threeDays, fewHours, fiveDays));
+
+            Rental booked = rentalRepository.findById(threeDays).orElseThrow();
+            Assertions.assertEquals(100.0, booked.getBookedDailyRate());
+            Assertions.assertEquals(3, booked.getRentalDays());
+            Assertions.assertEquals(0, new BigDecimal("300").compareTo(booked.getTotalValue()));
+
+            vehicle.setDailyRate(250.0);
+            vehicleService.update(vehicle.getId(), vehicle);
+
+            Assertions.assertEquals(0, new BigDecimal("900").compareTo(rentalService.getTotalValueByUser(USER_ID)));
+            Assertions.assertEquals(fiveDays, rentalService.getHighestValueRentalByUser(USER_ID).getId());
+            Assertions.assertEquals(fewHours, rentalService.getLowestValueRentalByUser(USER_ID).getId());
+
+            // Sem preço gravado: total, maior e menor usam a diária atual, como a fatura (3 dias x 250)
+            jdbcTemplate.update("UPDATE tb_rental SET booked_daily_rate = NULL, rental_days = NULL, total_value = NULL WHERE id = ?", threeDays);
+            Assertions.assertEquals(0, new BigDecimal("1350").compareTo(rentalService.getTotalValueByUser(USER_ID)));
+            Assertions.assertEquals(threeDays, rentalService.getHighestValueRentalByUser(USER_ID).getId());
+            Assertions.assertEquals(fewHours, rentalService.getLowestValueRentalByUser(USER_ID).getId());
+
+            Assertions.assertTrue(rentalPriceBackfill.backfill() >= 1);
+            Assertions.assertEquals(0, new BigDecimal("1350").compareTo(rentalService.getTotalValueByUser(USER_ID)));
+
+            Rental backfilled = rentalRepository.findById(threeDays).orElseThrow();
+            Assertions.assertEquals(250.0, backfilled.getBookedDailyRate());
+            Assertions.assertEquals(3, backfilled.getRentalDays());
+            Assertions.assertEquals(0, new BigDecimal("750").compareTo(backfilled.getTotalValue()));
+        } finally {
+            rentalIds.forEach(rentalService::delete);
+            vehicleService.delete(vehicle.getId());
+        }
+    }
+
+    private VehicleDTO newVehicle(double dailyRate) {
+        VehicleDTO dto = new VehicleDTO();
+        dto.setBrand("Fiat");
+        dto.setModel("Argo");
+        dto.setLicensePlate("PRICE-SNAP-1");
+        dto.setDailyRate(dailyRate);
+        return vehicleService.insert(dto);
+    }
+
+    private long book(long vehicleId, Instant rentalDate, Instant returnDate) {
+        UserDTO user = new UserDTO();
+        user.setId(USER_ID);
+        VehicleDTO vehicle = new VehicleDTO();
+        vehicle.setId(vehicleId);
+
+        RentalDTO dto = new RentalDTO();
+        dto.setUser(user);
+        dto.setVehicle(vehicle);
+        dto.setRentalDate(rentalDate);
+        dto.setReturnDate(returnDate);
+        return rentalService.insert(dto).getId();
+    }
+}
@@ -0,0 +1,170 @@
+package br.edu.ifmg.locadora.services;
+
+import br.edu.ifmg.locadora.dtos.RentalDTO;
+import br.edu.ifmg.locadora.dtos.UserDTO;
+import br.edu.ifmg.locadora.dtos.VehicleDTO;
+import br.edu.ifmg.locadora.entities.Rental;
+import br.edu.ifmg.locadora.repositories.RentalRepository;
+import br.edu.ifmg.locadora.services.booking.BookingLockManager;
+import br.edu.ifmg.locadora.services.exceptions.ConflictException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+public class RentalServiceConcurrencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalServiceConcurrencyTest.class);
+
+    private static final int VEHICLES = 4;
+    private static final int BOOKINGS_PER_THREAD = 40;
+    private static final Instant BASE = Instant.parse("2031-01-01T10:00:00Z");
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    // Várias threads disputam os mesmos veículos em períodos sobrepostos; nenhum veículo pode ficar com dois aluguéis sobrepostos
+    @Test
+    public void testConcurrentInsertsNeverDoubleBook() throws Exception {
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            runBookings(threads, "T" + threads);
+        }
+    }
+
+    // Simula várias instâncias: sem o lock da JVM e sem o índice local, só a versão do veículo impede a sobreposição
+    @Test
+    public void testConcurrentInsertsWithoutJvmLockNeverDoubleBook() throws Exception {
+        Object lockManager = ReflectionTestUtils.getField(rentalService, "bookingLockManager");
+        ReflectionTestUtils.setField(rentalService, "bookingLockManager", Mockito.mock(BookingLockManager.class));
+        ReflectionTestUtils.setField(rentalService, "indexAuthoritative", false);
+        try {
+            runBookings(4, "MN");
+        } finally {
+            ReflectionTestUtils.setField(rentalService, "bookingLockManager", lockManager);
+            ReflectionTestUtils.setField(rentalService, "indexAuthoritative", true);
+        }
+    }
+
+    // Veículos e aluguéis criados aqui são removidos no fim para não afetar os outros testes
+    private void runBookings(int threads, String prefix) throws Exception {
+        List<Long> vehicleIds = createVehicles(prefix);
+        try {
+            AtomicInteger booked = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Random random = new Random(t);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                        long vehicleId = vehicleIds.get(random.nextInt(VEHICLES));
+                        Instant rentalDate = BASE.plus(random.nextInt(60), ChronoUnit.DAYS);
+                        Instant returnDate = rentalDate.plus(1 + random.nextInt(3), ChronoUnit.DAYS);
+                        try {
+                            rentalService.insert(newRental(vehicleId, rentalDate, returnDate));
+                            booked.incrementAndGet();
+                        } catch (ConflictException | ConcurrencyFailureException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            logger.info("{} threads={} reservas={} recusadas={} throughput={} tentativas/s", prefix, threads,
+                    booked.get(), rejected.get(), Math.round(threads * BOOKINGS_PER_THREAD / seconds));
+
+            // Toda tentativa termina em reserva ou recusa, e cada reserva aceita está gravada
+            Assertions.assertEquals(threads * BOOKINGS_PER_THREAD, booked.get() + rejected.get());
+            Assertions.assertTrue(booked.get() > 0);
+            Assertions.assertEquals(booked.get(), rentalsOf(vehicleIds).size());
+            for (Long vehicleId : vehicleIds) {
+                assertNoOverlap(vehicleId);
+            }
+        } finally {
+            rentalsOf(vehicleIds).forEach(rental -> rentalService.delete(rental.getId()));
+            vehicleIds.forEach(vehicleService::delete);
+        }
+    }
+
+    private List<Rental> rentalsOf(List<Long> vehicleIds) {
+        return rentalRepository.findAll().stream()
+                .filter(r -> vehicleIds.contains(r.getVehicle().getId()))
+                .toList();
+    }
+
+    private List<Long> createVehicles(String prefix) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < VEHICLES; i++) {
+            VehicleDTO dto = new VehicleDTO();
+            dto.setBrand("Fiat");
+            dto.setModel("Mobi");
+            dto.setLicensePlate("CONC-" + prefix + "-" + i);
+            dto.setDailyRate(100.0);
+            ids.add(vehicleService.insert(dto).getId());
+        }
+        return ids;
+    }
+
+    private RentalDTO newRental(long vehicleId, Instant rentalDate, Instant returnDate) {
+        UserDTO user = new UserDTO();
+        user.setId(1L);
+        VehicleDTO vehicle = new VehicleDTO();
+        vehicle.setId(vehicleId);
+
+        RentalDTO dto = new RentalDTO();
+        dto.setUser(user);
+        dto.setVehicle(vehicle);
+        dto.setRentalDate(rentalDate);
+        dto.setReturnDate(returnDate);
+        return dto;
+    }
+
+    private void assertNoOverlap(long vehicleId) {
+        List<Rental> rentals = rentalsOf(List.of(vehicleId)).stream()
+                .sorted(Comparator.comparing(Rental::getRentalDate))
+                .collect(Collectors.toList());
+        Assertions.assertFalse(rentals.isEmpty());
+        for (int i = 1; i < rentals.size(); i++) {
+            Assertions.assertFalse(rentals.get(i).getRentalDate().isBefore(rentals.get(i - 1).getReturnDate()),
+                    "Aluguéis sobrepostos no veículo " + vehicleId);
+        }
+    }
+}
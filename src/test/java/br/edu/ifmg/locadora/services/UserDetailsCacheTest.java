@@ -0,0 +1,89 @@
+package br.edu.ifmg.locadora.services;
+
+import br.edu.ifmg.locadora.dtos.UserDTO;
+import br.edu.ifmg.locadora.services.auth.UserDetailsCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+@SpringBootTest
+public class UserDetailsCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Segundo login do mesmo usuário não consulta o banco
+    @Test
+    public void testLoadUserByUsernameIsCached() {
+        userService.loadUserByUsername("joao");
+        double hits = hits();
+
+        Statistics statistics = statistics();
+        try {
+            UserDetails user = userService.loadUserByUsername("joao");
+            Assertions.assertEquals("joao", user.getUsername());
+            Assertions.assertFalse(user.getAuthorities().isEmpty());
+            Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+            Assertions.assertEquals(hits + 1, hits());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    // A alteração do usuário remove a entrada: o próximo login volta a consultar o banco
+    @Test
+    public void testUpdateEvictsCachedUser() {
+        userService.loadUserByUsername("ana");
+        UserDTO dto = userService.findById(3L);
+        userService.update(3L, dto);
+
+        Statistics statistics = statistics();
+        try {
+            userService.loadUserByUsername("ana");
+            Assertions.assertTrue(statistics.getPrepareStatementCount() > 0);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    // Usuário inexistente não fica no cache: a segunda tentativa também consulta o banco e não conta como acerto
+    @Test
+    public void testUnknownUserIsNotCached() {
+        Assertions.assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("nobody"));
+        double hits = hits();
+
+        Statistics statistics = statistics();
+        try {
+            Assertions.assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("nobody"));
+            Assertions.assertTrue(statistics.getPrepareStatementCount() > 0);
+            Assertions.assertEquals(hits, hits());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        return statistics;
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", UserDetailsCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count();
+    }
+}
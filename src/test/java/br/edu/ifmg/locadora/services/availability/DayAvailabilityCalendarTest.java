@@ -0,0 +1,117 @@
+package br.edu.ifmg.locadora.services.availability;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+// Calendário sobre um índice montado à mão (sem banco): janela de 130 dias = 3 palavras de 64 bits
+public class DayAvailabilityCalendarTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2030-01-01");
+    private static final int HORIZON = 130;
+
+    private RentalIntervalIndex index;
+    private DayAvailabilityCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        index = new RentalIntervalIndex();
+        calendar = new DayAvailabilityCalendar();
+        ReflectionTestUtils.setField(calendar, "horizonDays", HORIZON);
+        ReflectionTestUtils.setField(calendar, "rentalIntervalIndex", index);
+        setToday(TODAY);
+
+        StaticListableBeanFactory listeners = new StaticListableBeanFactory();
+        listeners.addBean("calendar", calendar);
+        ReflectionTestUtils.setField(index, "listeners", listeners.getBeanProvider(RentalIntervalListener.class));
+        ReflectionTestUtils.setField(index, "ready", true);
+
+        for (long vehicleId = 1; vehicleId <= 3; vehicleId++) {
+            index.vehicleAdded(vehicleId);
+        }
+        calendar.intervalsReloaded();
+    }
+
+    private void setToday(LocalDate today) {
+        ReflectionTestUtils.setField(calendar, "clock", Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+    }
+
+    private static LocalDate day(int offset) {
+        return TODAY.plusDays(offset);
+    }
+
+    private static Instant at(int offset, int hour) {
+        return day(offset).atStartOfDay(ZoneOffset.UTC).toInstant().plus(Duration.ofHours(hour));
+    }
+
+    private List<Long> available(int from, int to) {
+        return calendar.findAvailableVehicleIds(day(from), day(to)).orElseThrow();
+    }
+
+    // Dias nos limites das palavras do bitset (63/64 e 127/128) e devolução exatamente à meia-noite
+    @Test
+    public void testWordBoundaries() {
+        index.rentalSaved(1, 10, at(63, 0), at(64, 0));
+        index.rentalSaved(2, 20, at(64, 10), at(64, 12));
+        index.rentalSaved(3, 30, at(127, 12), at(128, 1));
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), available(62, 62));
+        Assertions.assertEquals(List.of(2L, 3L), available(63, 63));
+        Assertions.assertEquals(List.of(1L, 3L), available(64, 64));
+        Assertions.assertEquals(List.of(3L), available(60, 70));
+        Assertions.assertEquals(OptionalLong.of(1), calendar.countAvailableVehicles(day(60), day(70)));
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), available(126, 126));
+        Assertions.assertEquals(List.of(1L, 2L), available(127, 127));
+        Assertions.assertEquals(List.of(1L, 2L), available(128, 129));
+        Assertions.assertEquals(List.of(1L, 2L), available(65, 129));
+
+        index.rentalRemoved(3, 30);
+        Assertions.assertEquals(List.of(1L, 2L, 3L), available(127, 128));
+    }
+
+    // Períodos fora de [hoje, hoje + horizonte) ficam para o índice; aluguéis além da janela são cortados
+    @Test
+    public void testHorizonEdge() {
+        index.rentalSaved(1, 10, at(-1, 0), at(0, 6));
+        index.rentalSaved(2, 20, at(HORIZON - 1, 20), at(HORIZON + 5, 0));
+
+        Assertions.assertEquals(List.of(2L, 3L), available(0, 0));
+        Assertions.assertEquals(List.of(1L, 2L, 3L), available(1, HORIZON - 2));
+        Assertions.assertEquals(List.of(1L, 3L), available(HORIZON - 1, HORIZON - 1));
+        Assertions.assertEquals(List.of(3L), available(0, HORIZON - 1));
+
+        Assertions.assertEquals(Optional.empty(), calendar.findAvailableVehicleIds(day(0), day(HORIZON)));
+        Assertions.assertEquals(Optional.empty(), calendar.findAvailableVehicleIds(day(-1), day(0)));
+        Assertions.assertEquals(Optional.empty(), calendar.findAvailableVehicleIds(day(5), day(4)));
+        Assertions.assertEquals(OptionalLong.empty(), calendar.countAvailableVehicles(day(HORIZON), day(HORIZON)));
+    }
+
+    // A virada do dia desloca a janela: ontem sai, o dia seguinte ao horizonte entra com os aluguéis já no índice
+    @Test
+    public void testDailyRollShiftsWindow() {
+        index.rentalSaved(1, 10, at(HORIZON, 8), at(HORIZON, 18));
+        Assertions.assertEquals(Optional.empty(), calendar.findAvailableVehicleIds(day(HORIZON), day(HORIZON)));
+
+        setToday(day(1));
+        calendar.roll();
+
+        Assertions.assertEquals(Optional.empty(), calendar.findAvailableVehicleIds(day(0), day(0)));
+        Assertions.assertEquals(List.of(2L, 3L), available(HORIZON, HORIZON));
+        Assertions.assertEquals(List.of(1L, 2L, 3L), available(1, HORIZON - 1));
+
+        index.vehicleRemoved(3);
+        Assertions.assertEquals(List.of(2L), available(HORIZON, HORIZON));
+    }
+}
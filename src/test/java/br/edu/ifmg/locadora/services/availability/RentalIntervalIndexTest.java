@@ -0,0 +1,89 @@
+package br.edu.ifmg.locadora.services.availability;
+
+import br.edu.ifmg.locadora.projections.RentalIntervalProjection;
+import br.edu.ifmg.locadora.repositories.RentalRepository;
+import br.edu.ifmg.locadora.repositories.VehicleRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Índice carregado de repositórios simulados; fora de transação as alterações valem na hora
+public class RentalIntervalIndexTest {
+
+    private static final Instant DAY_1 = Instant.parse("2030-05-01T10:00:00Z");
+    private static final Instant DAY_2 = Instant.parse("2030-05-02T10:00:00Z");
+    private static final Instant DAY_3 = Instant.parse("2030-05-03T10:00:00Z");
+    private static final Instant DAY_4 = Instant.parse("2030-05-04T10:00:00Z");
+
+    private RentalIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        VehicleRepository vehicleRepository = Mockito.mock(VehicleRepository.class);
+        RentalRepository rentalRepository = Mockito.mock(RentalRepository.class);
+        Mockito.when(vehicleRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        Mockito.when(rentalRepository.streamAllIntervals()).thenReturn(Stream.of(
+                new RentalIntervalProjection(11, 1, DAY_2, DAY_3),
+                new RentalIntervalProjection(10, 1, DAY_1, DAY_2)));
+
+        index = new RentalIntervalIndex();
+        ReflectionTestUtils.setField(index, "vehicleRepository", vehicleRepository);
+        ReflectionTestUtils.setField(index, "rentalRepository", rentalRepository);
+        ReflectionTestUtils.setField(index, "listeners", new StaticListableBeanFactory().getBeanProvider(RentalIntervalListener.class));
+        index.load();
+    }
+
+    // Aluguéis adjacentes carregados fora de ordem: o veículo 1 fica ocupado de DAY_1 a DAY_3, sem buraco
+    @Test
+    public void testLoadsAdjacentIntervals() {
+        Assertions.assertTrue(index.isReady());
+        Assertions.assertTrue(index.hasConflict(1, DAY_1, DAY_3));
+        Assertions.assertTrue(index.hasConflict(1, DAY_2.minusSeconds(1), DAY_2.plusSeconds(1)));
+        Assertions.assertEquals(List.of(2L, 3L), index.findAvailableVehicleIds(DAY_1, DAY_3));
+    }
+
+    // Devolução e retirada no mesmo instante não conflitam
+    @Test
+    public void testTouchingEndpoints() {
+        Assertions.assertFalse(index.hasConflict(1, DAY_3, DAY_4));
+        Assertions.assertFalse(index.hasConflict(1, DAY_1.minusSeconds(3600), DAY_1));
+        Assertions.assertEquals(List.of(1L, 2L, 3L), index.findAvailableVehicleIds(DAY_3, DAY_4));
+    }
+
+    @Test
+    public void testRemoveThenReinsert() {
+        index.rentalRemoved(1, 11);
+        Assertions.assertFalse(index.hasConflict(1, DAY_2, DAY_3));
+
+        index.rentalSaved(1, 11, DAY_3, DAY_4);
+        Assertions.assertFalse(index.hasConflict(1, DAY_2, DAY_3));
+        Assertions.assertTrue(index.hasConflict(1, DAY_3, DAY_4));
+
+        // Nova gravação do mesmo aluguel substitui o período anterior
+        index.rentalSaved(1, 11, DAY_2, DAY_3);
+        Assertions.assertFalse(index.hasConflict(1, DAY_3, DAY_4));
+        Assertions.assertTrue(index.hasConflict(1, DAY_2, DAY_3));
+    }
+
+    // Troca de veículo na alteração: RentalService remove do anterior e grava no novo
+    @Test
+    public void testMoveRentalBetweenVehicles() {
+        index.rentalRemoved(1, 11);
+        index.rentalSaved(2, 11, DAY_2, DAY_3);
+
+        Assertions.assertFalse(index.hasConflict(1, DAY_2, DAY_3));
+        Assertions.assertTrue(index.hasConflict(1, DAY_1, DAY_2));
+        Assertions.assertTrue(index.hasConflict(2, DAY_2, DAY_3));
+        Assertions.assertEquals(List.of(1L, 3L), index.findAvailableVehicleIds(DAY_2, DAY_3));
+
+        index.vehicleRemoved(2);
+        Assertions.assertEquals(List.of(1L, 3L), index.findAvailableVehicleIds(DAY_2, DAY_3));
+    }
+}
@@ -0,0 +1,74 @@
+package br.edu.ifmg.locadora.services.availability;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+// Intervalos semiabertos [retirada, devolução): mesma regra de RentalRepository.existsRentalConflict
+public class VehicleIntervalsTest {
+
+    // Um aluguel que começa exatamente na devolução do anterior não conflita
+    @Test
+    public void testTouchingEndpointsDoNotOverlap() {
+        VehicleIntervals intervals = VehicleIntervals.EMPTY.with(1, 100, 200);
+
+        Assertions.assertFalse(intervals.overlaps(200, 300));
+        Assertions.assertFalse(intervals.overlaps(0, 100));
+        Assertions.assertTrue(intervals.overlaps(199, 300));
+        Assertions.assertTrue(intervals.overlaps(0, 101));
+        Assertions.assertTrue(intervals.overlaps(120, 180));
+        Assertions.assertTrue(intervals.overlaps(0, 1000));
+    }
+
+    // Intervalos adjacentes: nenhum buraco entre eles, e a busca binária acha o vizinho certo
+    @Test
+    public void testAdjacentIntervals() {
+        VehicleIntervals intervals = VehicleIntervals.EMPTY
+                .with(2, 200, 300)
+                .with(1, 100, 200)
+                .with(3, 300, 400);
+
+        Assertions.assertEquals(3, intervals.size());
+        Assertions.assertEquals(1, intervals.rentalIdAt(0));
+        Assertions.assertEquals(2, intervals.rentalIdAt(1));
+        Assertions.assertEquals(3, intervals.rentalIdAt(2));
+        for (long t = 100; t < 400; t += 50) {
+            Assertions.assertTrue(intervals.overlaps(t, t + 1), "livre em " + t);
+        }
+        Assertions.assertFalse(intervals.overlaps(400, 500));
+        Assertions.assertFalse(intervals.overlaps(50, 100));
+    }
+
+    // Um intervalo longo no início continua valendo para períodos depois dos intervalos curtos (maxEnds)
+    @Test
+    public void testLongIntervalCoversLaterShortOnes() {
+        VehicleIntervals intervals = VehicleIntervals.of(new long[]{3, 1, 2}, new long[]{300, 100, 150}, new long[]{310, 1000, 160}, 3);
+
+        Assertions.assertEquals(100, intervals.startAt(0));
+        Assertions.assertTrue(intervals.overlaps(500, 600));
+        Assertions.assertFalse(intervals.without(1).overlaps(500, 600));
+    }
+
+    // Remover e reinserir o mesmo aluguel (alteração de datas) não deixa o período antigo ocupado
+    @Test
+    public void testRemoveThenReinsert() {
+        VehicleIntervals intervals = VehicleIntervals.EMPTY.with(1, 100, 200).with(2, 300, 400);
+
+        VehicleIntervals removed = intervals.without(1);
+        Assertions.assertEquals(1, removed.size());
+        Assertions.assertFalse(removed.overlaps(100, 200));
+        Assertions.assertSame(removed, removed.without(1));
+
+        VehicleIntervals moved = removed.with(1, 500, 600);
+        Assertions.assertEquals(2, moved.size());
+        Assertions.assertFalse(moved.overlaps(100, 200));
+        Assertions.assertTrue(moved.overlaps(550, 560));
+
+        // with() do mesmo aluguel substitui o intervalo, não duplica
+        VehicleIntervals replaced = moved.with(1, 150, 250);
+        Assertions.assertEquals(2, replaced.size());
+        Assertions.assertFalse(replaced.overlaps(500, 600));
+        Assertions.assertTrue(replaced.overlaps(200, 210));
+
+        Assertions.assertSame(VehicleIntervals.EMPTY, replaced.without(1).without(2));
+    }
+}
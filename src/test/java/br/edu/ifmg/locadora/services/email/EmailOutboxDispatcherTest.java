@@ -0,0 +1,182 @@
+package br.edu.ifmg.locadora.services.email;
+
+import br.edu.ifmg.locadora.dtos.EmailDTO;
+import br.edu.ifmg.locadora.entities.EmailOutbox;
+import br.edu.ifmg.locadora.repositories.EmailOutboxRepository;
+import br.edu.ifmg.locadora.services.EmailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+// Dispatcher apontado para um servidor SMTP falso local (o agendamento pode rodar junto: a reserva das linhas
+// garante que cada lote é enviado por uma única execução)
+@SpringBootTest
+public class EmailOutboxDispatcherTest {
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private FakeSmtpServer server;
+    private Object originalSender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeSmtpServer();
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(server.port());
+        originalSender = ReflectionTestUtils.getField(dispatcher, "mailSender");
+        ReflectionTestUtils.setField(dispatcher, "mailSender", sender);
+        repository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ReflectionTestUtils.setField(dispatcher, "mailSender", (JavaMailSender) originalSender);
+        server.close();
+        repository.deleteAll();
+    }
+
+    private void enqueue(String... recipients) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String recipient : recipients) {
+                emailService.enqueue(new EmailDTO(recipient, "Assunto", "Corpo para " + recipient));
+            }
+        });
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "condição não atingida");
+            Thread.sleep(20);
+        }
+    }
+
+    // Lote enviado numa única conexão SMTP; linhas enviadas saem da outbox
+    @Test
+    public void testSendsBatchOverOneConnection() throws Exception {
+        enqueue("ana@email.com", "joao@email.com", "lucas@email.com");
+
+        dispatcher.dispatch();
+        await(() -> repository.count() == 0);
+
+        Assertions.assertEquals(1, server.connections());
+        Assertions.assertEquals(List.of("ana@email.com", "joao@email.com", "lucas@email.com"),
+                server.messages().stream().map(m -> m.recipients().getFirst()).sorted().toList());
+    }
+
+    // Destinatário recusado: os demais do lote seguem; o recusado volta com espera e vira DEAD na última tentativa
+    @Test
+    public void testFailedMessageIsRetriedWithBackoffThenDead() throws Exception {
+        enqueue("ana@email.com", "bounce@email.com");
+
+        dispatcher.dispatch();
+        await(() -> repository.count() == 1 && repository.findAll().getFirst().getLastError() != null);
+
+        EmailOutbox bounced = repository.findAll().getFirst();
+        Assertions.assertEquals("bounce@email.com", bounced.getRecipient());
+        Assertions.assertEquals(EmailOutbox.PENDING, bounced.getStatus());
+        Assertions.assertEquals(1, bounced.getAttempts());
+        Assertions.assertTrue(bounced.getNextAttemptAt().isAfter(Instant.now().plusSeconds(20)));
+        Assertions.assertEquals(1, server.messages().size());
+
+        jdbcTemplate.update("UPDATE tb_email_outbox SET attempts = 7, next_attempt_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), bounced.getId());
+        dispatcher.dispatch();
+        await(() -> EmailOutbox.DEAD.equals(repository.findById(bounced.getId()).orElseThrow().getStatus()));
+        Assertions.assertEquals(8, repository.findById(bounced.getId()).orElseThrow().getAttempts());
+        Assertions.assertNull(repository.findById(bounced.getId()).orElseThrow().getBody());
+    }
+
+    // Conteúdo expirado (ex.: token de recuperação vencido) não é enviado e o corpo é apagado
+    @Test
+    public void testExpiredEmailIsDiscardedWithoutSending() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                emailService.enqueue(new EmailDTO("ana@email.com", "Assunto", "token secreto"), Instant.now().plusSeconds(60)));
+        jdbcTemplate.update("UPDATE tb_email_outbox SET expires_at = ?", Timestamp.from(Instant.now().minusSeconds(1)));
+
+        dispatcher.dispatch();
+        await(() -> repository.findAll().stream().allMatch(e -> EmailOutbox.DEAD.equals(e.getStatus())));
+
+        Assertions.assertNull(repository.findAll().getFirst().getBody());
+        Assertions.assertEquals(0, server.connections());
+    }
+
+    // Próxima tentativa (30s) depois da expiração: descartado já na primeira falha, sem o corpo
+    @Test
+    public void testRetryIsCappedAtExpiration() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                emailService.enqueue(new EmailDTO("bounce@email.com", "Assunto", "token secreto"), Instant.now().plusSeconds(10)));
+
+        dispatcher.dispatch();
+        await(() -> repository.findAll().stream().allMatch(e -> EmailOutbox.DEAD.equals(e.getStatus())));
+
+        EmailOutbox discarded = repository.findAll().getFirst();
+        Assertions.assertEquals(1, discarded.getAttempts());
+        Assertions.assertNull(discarded.getBody());
+    }
+
+    // Servidor fora do ar: nada se perde, o lote todo é reagendado
+    @Test
+    public void testConnectionFailureReschedulesBatch() throws Exception {
+        server.close();
+        enqueue("ana@email.com", "joao@email.com");
+
+        dispatcher.dispatch();
+        await(() -> repository.findAll().stream().allMatch(e -> e.getAttempts() == 1 && e.getLastError() != null));
+
+        Assertions.assertEquals(2, repository.count());
+        Assertions.assertTrue(repository.findAll().stream().allMatch(e -> e.getNextAttemptAt().isAfter(Instant.now())));
+    }
+
+    // DEAD além da retenção (7 dias) é apagado; a métrica email.outbox.dead acompanha sem consultar o banco
+    @Test
+    public void testPurgeDeadAfterRetention() throws Exception {
+        enqueue("ana@email.com", "joao@email.com", "lucas@email.com");
+        List<EmailOutbox> rows = repository.findAll();
+        jdbcTemplate.update("UPDATE tb_email_outbox SET status = 'DEAD', body = NULL, next_attempt_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(8))), rows.get(0).getId());
+        jdbcTemplate.update("UPDATE tb_email_outbox SET status = 'DEAD', body = NULL, next_attempt_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(1))), rows.get(1).getId());
+        jdbcTemplate.update("UPDATE tb_email_outbox SET next_attempt_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().plus(Duration.ofHours(1))), rows.get(2).getId());
+
+        Assertions.assertEquals(1, dispatcher.purgeDead());
+        Assertions.assertFalse(repository.existsById(rows.get(0).getId()));
+        Assertions.assertTrue(repository.existsById(rows.get(1).getId()));
+        Assertions.assertTrue(repository.existsById(rows.get(2).getId()));
+        Assertions.assertEquals(1.0, meterRegistry.get("email.outbox.dead").gauge().value());
+    }
+}